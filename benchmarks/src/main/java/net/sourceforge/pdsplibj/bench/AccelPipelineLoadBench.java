@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package net.sourceforge.pdsplibj.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.example.acelerometro_m.AccelPipeline;
+import com.example.acelerometro_m.GravityCompensator;
+import com.example.acelerometro_m.SyntheticImuSource;
+
+/**
+ * Carga do motor de processamento do aplicativo sem o celular: blocos de
+ * {@link #BATCH} amostras de um {@link SyntheticImuSource} a 1 kHz (10 vezes
+ * a taxa do aplicativo), com movimento, ruído, bias e erro nos tempos,
+ * entregues a {@link AccelPipeline#processBatch(long[], double[], int, int, double[])}.
+ * O tempo é por amostra.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccelPipelineLoadBench {
+	public static final int BATCH = 256;
+
+	private final long[] t = new long[BATCH];
+	private final double[] xyz = new double[3 * BATCH];
+
+	private SyntheticImuSource source;
+	private AccelPipeline pipeline;
+	private AccelPipeline fused;
+	private AccelPipeline leveled;
+
+	@Setup
+	public void setup() {
+		source = new SyntheticImuSource(1000, 1);
+		source.setMotion(0, SyntheticImuSource.sine(1000, 0.5));
+		source.setMotion(1, SyntheticImuSource.sine(250, 0.2));
+		source.setJitter(50000);
+
+		pipeline = new AccelPipeline();
+		fused = new AccelPipeline();
+		fused.setFusedKalman(true);
+		leveled = new AccelPipeline();
+		leveled.setGravityCompensator(new GravityCompensator());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public double[] generate() {
+		source.read(t, xyz, BATCH);
+		return xyz;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public double pipeline() {
+		source.read(t, xyz, BATCH);
+		pipeline.processBatch(t, xyz, 0, BATCH, null);
+		return pipeline.getPosX();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public double pipelineFused() {
+		source.read(t, xyz, BATCH);
+		fused.processBatch(t, xyz, 0, BATCH, null);
+		return fused.getPosX();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public double pipelineGravity() {
+		source.read(t, xyz, BATCH);
+		leveled.processBatch(t, xyz, 0, BATCH, null);
+		return leveled.getPosX();
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.bench;
+
+import java.util.Random;
+
+/**
+ * Sinal de entrada comum a todos os benchmarks.
+ *
+ * É um seno de aceleração com ruído gaussiano, gerado uma só vez com semente
+ * fixa para que as medições sejam repetíveis. O tamanho é uma potência de 2
+ * para que o índice circular seja só uma máscara.
+ */
+final class PdsBenchData {
+	static final int SIZE = 4096;
+	static final int MASK = SIZE - 1;
+
+	static final double[] SIGNAL = new double[SIZE];
+
+	static {
+		Random r = new Random(20150525L);
+		for (int i = 0; i < SIZE; i++) {
+			SIGNAL[i] = 0.5 * Math.sin(2.0 * Math.PI * i / 64.0) + 0.05 * r.nextGaussian();
+		}
+	}
+
+	private PdsBenchData() {
+	}
+}
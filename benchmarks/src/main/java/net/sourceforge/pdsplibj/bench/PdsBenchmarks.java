@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ponto de entrada dos benchmarks de net.sourceforge.pdsplibj.
+ *
+ * Executa os benchmarks com o profiler de GC sempre ativo, de jeito que o
+ * resultado mostra o tempo por chamada (ns/op) e os bytes alocados por
+ * chamada (gc.alloc.rate.norm). Aceita as mesmas opções de linha de comando
+ * do JMH, por exemplo:
+ * <pre>
+ *  java -jar target/benchmarks.jar PdsFifoValue -p size=1024
+ * </pre>
+ */
+public class PdsBenchmarks {
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		Options opt = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(opt).run();
+	}
+}
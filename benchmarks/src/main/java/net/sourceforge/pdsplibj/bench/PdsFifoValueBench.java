@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.sourceforge.pdsplibj.pdsra.PdsFifoValue;
+
+/**
+ * Custo de escrita e das estatísticas de {@link PdsFifoValue} com a memoria
+ * cheia, em tamanhos de janela típicos da calibração (PdsKalman1DTool).
+ * Os métodos *Lags usam uma FIFO com o atraso 1 escolhido com
+ * {@link PdsFifoValue#SetLags(int[])}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PdsFifoValueBench {
+	@Param({"64", "256", "1024"})
+	public int size;
+
+	private PdsFifoValue fifo;
+	private PdsFifoValue fifoLags;
+	private int n;
+
+	@Setup
+	public void setup() {
+		fifo = new PdsFifoValue(size);
+		fifoLags = new PdsFifoValue(size);
+		fifoLags.SetLags(new int[] {1});
+		for (int i = 0; i < size; i++) {
+			fifo.WriteValue(PdsBenchData.SIGNAL[i & PdsBenchData.MASK]);
+			fifoLags.WriteValue(PdsBenchData.SIGNAL[i & PdsBenchData.MASK]);
+		}
+		n = 0;
+	}
+
+	@Benchmark
+	public void writeValue() {
+		n = (n + 1) & PdsBenchData.MASK;
+		fifo.WriteValue(PdsBenchData.SIGNAL[n]);
+	}
+
+	@Benchmark
+	public double getVar() {
+		return fifo.GetVar();
+	}
+
+	@Benchmark
+	public double getCor() {
+		return fifo.GetCor(1);
+	}
+
+	/** Uma escrita seguida de variância e autocorrelação, como na calibração contínua. */
+	@Benchmark
+	public double writeAndStats() {
+		n = (n + 1) & PdsBenchData.MASK;
+		fifo.WriteValue(PdsBenchData.SIGNAL[n]);
+		return fifo.GetVar() + fifo.GetCor(1);
+	}
+
+	@Benchmark
+	public void writeValueLags() {
+		n = (n + 1) & PdsBenchData.MASK;
+		fifoLags.WriteValue(PdsBenchData.SIGNAL[n]);
+	}
+
+	@Benchmark
+	public double writeAndStatsLags() {
+		n = (n + 1) & PdsBenchData.MASK;
+		fifoLags.WriteValue(PdsBenchData.SIGNAL[n]);
+		return fifoLags.GetVar() + fifoLags.GetCor(1);
+	}
+}
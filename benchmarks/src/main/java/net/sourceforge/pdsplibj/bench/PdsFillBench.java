@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package net.sourceforge.pdsplibj.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.sourceforge.pdsplibj.pdsrv.PdsGaussian;
+import net.sourceforge.pdsplibj.pdsrv.PdsUniform;
+import net.sourceforge.pdsplibj.pdsrv.PdsXoshiro256;
+
+/**
+ * Preencher um vetor de n valores de {@link PdsUniform} e {@link PdsGaussian}:
+ * com um laço de GetValue(), com Fill e com FillParallel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PdsFillBench {
+	@Param({"1024", "1048576"})
+	public int n;
+
+	private double[] v;
+	private PdsUniform uniform;
+	private PdsGaussian gaussian;
+
+	@Setup
+	public void setup() {
+		v = new double[n];
+		uniform = new PdsUniform(-1, 1, new PdsXoshiro256(1));
+		gaussian = new PdsGaussian(0, 1, new PdsXoshiro256(1));
+	}
+
+	@Benchmark
+	public double[] uniformLoop() {
+		for (int i = 0; i < n; i++) v[i] = uniform.GetValue();
+		return v;
+	}
+
+	@Benchmark
+	public double[] uniformFill() {
+		uniform.Fill(v, 0, n);
+		return v;
+	}
+
+	@Benchmark
+	public double[] gaussianLoop() {
+		for (int i = 0; i < n; i++) v[i] = gaussian.GetValue();
+		return v;
+	}
+
+	@Benchmark
+	public double[] gaussianFill() {
+		gaussian.Fill(v, 0, n);
+		return v;
+	}
+
+	@Benchmark
+	public double[] gaussianFillParallel() {
+		gaussian.FillParallel(v, 0, n);
+		return v;
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.sourceforge.pdsplibj.pdsdf.PdsFir;
+
+/**
+ * Custo por amostra de {@link PdsFir#EvaluateValue(double)} em ordens típicas
+ * de filtros passa baixo para o acelerômetro.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PdsFirBench {
+	@Param({"4", "16", "64"})
+	public int order;
+
+	private PdsFir filter;
+	private int n;
+
+	@Setup
+	public void setup() {
+		filter = new PdsFir(order);
+		for (int i = 0; i <= order; i++) filter.SetHValue(1.0 / (order + 1), i);
+		n = 0;
+	}
+
+	@Benchmark
+	public double evaluateValue() {
+		n = (n + 1) & PdsBenchData.MASK;
+		return filter.EvaluateValue(PdsBenchData.SIGNAL[n]);
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.sourceforge.pdsplibj.pdsdf.PdsFirNlms;
+import net.sourceforge.pdsplibj.pdsdf.PdsFirNlmsData;
+
+/**
+ * Custo por amostra de {@link PdsFirNlms#EvaluateValue(double, double)} com a
+ * adaptação dos pesos habilitada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PdsFirNlmsBench {
+	@Param({"4", "12", "32"})
+	public int order;
+
+	private PdsFirNlms filter;
+	private int n;
+
+	@Setup
+	public void setup() {
+		filter = new PdsFirNlms(0.6, order);
+		filter.SetLambda(0.0000001);
+		n = 0;
+	}
+
+	@Benchmark
+	public double evaluateValue() {
+		n = (n + 1) & PdsBenchData.MASK;
+		PdsFirNlmsData d = filter.EvaluateValue(PdsBenchData.SIGNAL[(n + 1) & PdsBenchData.MASK], PdsBenchData.SIGNAL[n]);
+		return d.GetY();
+	}
+}
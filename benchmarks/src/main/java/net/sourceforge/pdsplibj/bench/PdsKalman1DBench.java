@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.sourceforge.pdsplibj.pdsdf.PdsKalman1D;
+import net.sourceforge.pdsplibj.pdsdf.PdsKalman1DArray;
+
+/**
+ * Custo por amostra de {@link PdsKalman1D#EvaluateValue(double)}, com e sem
+ * a fonte simulada U_k e com o ganho de estado estacionário, e de um
+ * filtro de 3 eixos feito com três PdsKalman1D ou com um só
+ * {@link PdsKalman1DArray}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PdsKalman1DBench {
+	private PdsKalman1D filter;
+	private PdsKalman1D noNoise;
+	private PdsKalman1D steady;
+	private PdsKalman1D fx, fy, fz;
+	private PdsKalman1DArray fxyz;
+	private final double[] z = new double[3];
+	private final double[] hat = new double[3];
+	private int n;
+
+	@Setup
+	public void setup() {
+		filter = new PdsKalman1D(1, 1, 1, 1);
+		noNoise = new PdsKalman1D(1, 1, 1, 1);
+		noNoise.DisableNoise();
+		steady = new PdsKalman1D(1, 1, 1, 1);
+		steady.DisableNoise();
+		steady.EnableSteadyState();
+		fx = new PdsKalman1D(1, 1, 1, 1);
+		fy = new PdsKalman1D(1, 1, 1, 1);
+		fz = new PdsKalman1D(1, 1, 1, 1);
+		fxyz = new PdsKalman1DArray(3, 1, 1, 1, 1);
+		n = 0;
+	}
+
+	@Benchmark
+	public double evaluateValue() {
+		n = (n + 1) & PdsBenchData.MASK;
+		return filter.EvaluateValue(PdsBenchData.SIGNAL[n]);
+	}
+
+	@Benchmark
+	public double evaluateValueNoNoise() {
+		n = (n + 1) & PdsBenchData.MASK;
+		return noNoise.EvaluateValue(PdsBenchData.SIGNAL[n]);
+	}
+
+	@Benchmark
+	public double evaluateValueSteadyState() {
+		n = (n + 1) & PdsBenchData.MASK;
+		return steady.EvaluateValue(PdsBenchData.SIGNAL[n]);
+	}
+
+	@Benchmark
+	public double threeAxesObjects() {
+		n = (n + 1) & PdsBenchData.MASK;
+		double v = PdsBenchData.SIGNAL[n];
+		return fx.EvaluateValue(v) + fy.EvaluateValue(-v) + fz.EvaluateValue(0.5 * v);
+	}
+
+	@Benchmark
+	public double threeAxesArray() {
+		n = (n + 1) & PdsBenchData.MASK;
+		double v = PdsBenchData.SIGNAL[n];
+		z[0] = v;
+		z[1] = -v;
+		z[2] = 0.5 * v;
+		fxyz.EvaluateValues(z, hat);
+		return hat[0] + hat[1] + hat[2];
+	}
+}
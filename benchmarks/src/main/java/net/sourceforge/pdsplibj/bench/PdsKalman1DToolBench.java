@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.sourceforge.pdsplibj.pdsdf.PdsKalman1DTool;
+import net.sourceforge.pdsplibj.pdsra.PdsVector;
+
+/**
+ * Custo de {@link PdsKalman1DTool#GetParameters()} após cada amostra, como
+ * no ajuste contínuo dos parâmetros do filtro.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PdsKalman1DToolBench {
+	@Param({"256", "1024"})
+	public int size;
+
+	private PdsKalman1DTool tool;
+	private int n;
+
+	@Setup
+	public void setup() {
+		tool = new PdsKalman1DTool(1, size);
+		for (int i = 0; i < size; i++) {
+			tool.AddValueR(0.1 * PdsBenchData.SIGNAL[(7 * i) & PdsBenchData.MASK]);
+			tool.AddValueA(PdsBenchData.SIGNAL[i & PdsBenchData.MASK]);
+		}
+		n = 0;
+	}
+
+	@Benchmark
+	public PdsVector addAndGetParameters() {
+		n = (n + 1) & PdsBenchData.MASK;
+		tool.AddValueA(PdsBenchData.SIGNAL[n]);
+		return tool.GetParameters();
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.sourceforge.pdsplibj.pdsdf.PdsKalman1D;
+import net.sourceforge.pdsplibj.pdsdf.PdsKalmanND;
+
+/**
+ * Custo por amostra de um eixo com o modelo [s, v, a] de
+ * {@link PdsKalmanND#SetConstantAcceleration(double, double)}, com um dt
+ * diferente em cada amostra, comparado com um {@link PdsKalman1D} seguido
+ * das duas integrais. Os dois não devem alocar nada por amostra.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PdsKalmanNDBench {
+	private PdsKalmanND state;
+	private PdsKalman1D filter;
+	private double v, s;
+	private int n;
+
+	@Setup
+	public void setup() {
+		state = new PdsKalmanND(3, 1);
+		state.SetR(1);
+		state.Init(1);
+		filter = new PdsKalman1D(1, 1, 1, 1);
+		filter.DisableNoise();
+		v = 0;
+		s = 0;
+		n = 0;
+	}
+
+	private double dt() {
+		// 10 ms com +-1 ms de variação
+		return 0.010 + 0.001 * PdsBenchData.SIGNAL[(n * 7) & PdsBenchData.MASK];
+	}
+
+	@Benchmark
+	public double constantAcceleration() {
+		n = (n + 1) & PdsBenchData.MASK;
+		state.SetConstantAcceleration(dt(), 100);
+		state.EvaluateValue(PdsBenchData.SIGNAL[n]);
+		return state.GetState(0);
+	}
+
+	@Benchmark
+	public double filterThenIntegrate() {
+		n = (n + 1) & PdsBenchData.MASK;
+		double dt = dt();
+		double a = filter.EvaluateValue(PdsBenchData.SIGNAL[n]);
+		v = v + a * dt;
+		s = s + v * dt;
+		return s;
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.sourceforge.pdsplibj.pdsra.PdsMatrix;
+
+/**
+ * Custo da multiplicação e da transposta de matrizes quadradas de
+ * {@link PdsMatrix}, criando o resultado (MulNew, TransposeNew) ou não
+ * (MulInto, Transpose).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PdsMatrixBench {
+	@Param({"3", "16", "64", "256"})
+	public int size;
+
+	private PdsMatrix a;
+	private PdsMatrix b;
+	private PdsMatrix c;
+
+	@Setup
+	public void setup() {
+		a = new PdsMatrix(size, size);
+		b = new PdsMatrix(size, size);
+		c = new PdsMatrix(size, size);
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				a.SetValue(i, j, PdsBenchData.SIGNAL[(i * size + j) & PdsBenchData.MASK]);
+				b.SetValue(i, j, PdsBenchData.SIGNAL[(j * size + i + 1) & PdsBenchData.MASK]);
+			}
+		}
+	}
+
+	@Benchmark
+	public PdsMatrix mulNew() {
+		return a.MulNew(b);
+	}
+
+	@Benchmark
+	public PdsMatrix mulInto() {
+		PdsMatrix.MulInto(c, a, b);
+		return c;
+	}
+
+	@Benchmark
+	public PdsMatrix transposeNew() {
+		return a.TransposeNew();
+	}
+
+	@Benchmark
+	public PdsMatrix transpose() {
+		a.Transpose();
+		return a;
+	}
+}
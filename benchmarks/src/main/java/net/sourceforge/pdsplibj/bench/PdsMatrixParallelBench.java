@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.sourceforge.pdsplibj.pdsra.PdsMatrix;
+import net.sourceforge.pdsplibj.pdsra.PdsVector;
+
+/**
+ * Comparação das operações de {@link PdsMatrix} sequenciais e divididas
+ * entre as threads do ForkJoinPool, em matrizes grandes. Com
+ * threshold=max tudo é sequencial; com threshold=default se usa
+ * {@link PdsMatrix#DEFAULT_PARALLEL_THRESHOLD}.
+ * <pre>
+ *  java -jar target/benchmarks.jar PdsMatrixParallel -p size=512
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PdsMatrixParallelBench {
+	@Param({"256", "1024"})
+	public int size;
+
+	@Param({"max", "default"})
+	public String threshold;
+
+	private PdsMatrix a;
+	private PdsMatrix b;
+	private PdsMatrix c;
+	private PdsVector x;
+	private PdsVector y;
+
+	@Setup
+	public void setup() {
+		if (threshold.equals("max")) PdsMatrix.SetParallelThreshold(Long.MAX_VALUE);
+		else PdsMatrix.SetParallelThreshold(PdsMatrix.DEFAULT_PARALLEL_THRESHOLD);
+
+		a = new PdsMatrix(size, size);
+		b = new PdsMatrix(size, size);
+		c = new PdsMatrix(size, size);
+		x = new PdsVector(size);
+		y = new PdsVector(size);
+		for (int i = 0; i < size; i++) {
+			x.SetValue(i, PdsBenchData.SIGNAL[i & PdsBenchData.MASK]);
+			for (int j = 0; j < size; j++) {
+				a.SetValue(i, j, PdsBenchData.SIGNAL[(i * size + j) & PdsBenchData.MASK]);
+				b.SetValue(i, j, PdsBenchData.SIGNAL[(j * size + i + 1) & PdsBenchData.MASK]);
+			}
+		}
+	}
+
+	@Benchmark
+	public PdsMatrix mulInto() {
+		PdsMatrix.MulInto(c, a, b);
+		return c;
+	}
+
+	@Benchmark
+	public PdsMatrix transposeNew() {
+		return a.TransposeNew();
+	}
+
+	@Benchmark
+	public PdsVector mulVector() {
+		PdsMatrix.MulInto(y, a, x);
+		return y;
+	}
+
+	@Benchmark
+	public PdsMatrix add() {
+		c.Add(0.5, a);
+		return c;
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.sourceforge.pdsplibj.pdsrv.PdsCongruential;
+import net.sourceforge.pdsplibj.pdsrv.PdsSplitMix64;
+import net.sourceforge.pdsplibj.pdsrv.PdsXoshiro256;
+
+/**
+ * Custo de um valor de cada gerador de pdsrv: {@link PdsXoshiro256} e
+ * {@link PdsSplitMix64} (64 bits e double em [0,1)) e {@link PdsCongruential}
+ * (31 bits).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PdsRandomGeneratorBench {
+	private PdsXoshiro256 xoshiro;
+	private PdsSplitMix64 splitMix;
+	private PdsCongruential congruential;
+
+	@Setup
+	public void setup() {
+		xoshiro = new PdsXoshiro256(1);
+		splitMix = new PdsSplitMix64(1);
+		congruential = new PdsCongruential(1);
+	}
+
+	@Benchmark
+	public long xoshiroLong() {
+		return xoshiro.GetLong();
+	}
+
+	@Benchmark
+	public double xoshiroDouble() {
+		return xoshiro.GetDouble();
+	}
+
+	@Benchmark
+	public long splitMixLong() {
+		return splitMix.GetLong();
+	}
+
+	@Benchmark
+	public long congruentialValue() {
+		return congruential.GetValue();
+	}
+}
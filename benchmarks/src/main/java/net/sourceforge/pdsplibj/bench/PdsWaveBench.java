@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package net.sourceforge.pdsplibj.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.sourceforge.pdsplibj.pdsds.PdsWave;
+
+/**
+ * Custo por amostra de {@link PdsWave}: o modo normal com GetValue() e com
+ * Render, e o modo NCO com cada interpolação, todos lendo a mesma tabela de
+ * 1024 elementos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PdsWaveBench {
+	public static final int N = 1024;
+
+	@Param({"0", "1", "2"})
+	public int interpolation;
+
+	private final double[] v = new double[N];
+	private PdsWave table;
+	private PdsWave nco;
+
+	@Setup
+	public void setup() {
+		table = new PdsWave(1024);
+		for (int i = 0; i < 1024; i++) table.SetData(Math.sin(2 * Math.PI * i / 1024), i);
+		nco = new PdsWave(table);
+		nco.SetInterpolation(interpolation);
+		nco.SetFrequency(0.0123456);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public double[] tableLoop() {
+		for (int i = 0; i < N; i++) v[i] = table.GetValue();
+		return v;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public double[] tableRender() {
+		table.Render(v, N);
+		return v;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public double[] ncoLoop() {
+		for (int i = 0; i < N; i++) v[i] = nco.GetValue();
+		return v;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(N)
+	public double[] ncoRender() {
+		nco.Render(v, N);
+		return v;
+	}
+}
@@ -1,9 +1,8 @@
 package com.example.acelerometro_m;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.text.DecimalFormat;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.text.DecimalFormatSymbols;
 
 import com.example.acelerometro_m.R;
 
@@ -11,27 +10,35 @@ import android.support.v7.app.ActionBarActivity;
 import android.content.Context;
 import android.graphics.Color;
 import android.hardware.Sensor;
-import android.hardware.SensorEvent;
-import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
 import android.os.Bundle;
+import android.os.Handler;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
-import net.sourceforge.pdsplibj.pdsdf.*;
+import net.sourceforge.pdsplibj.pdsextras.PdsCaptureHeader;
 
-public class AccMActivity extends ActionBarActivity implements SensorEventListener {
-	
-	// Teste
-	
-	 private long last_timeAcel=0;		
-	 private long current_timeAcel=0;
+public class AccMActivity extends ActionBarActivity implements SensorWorker.Consumer {
 	
 	SensorManager sm;
 	Sensor acelerometro;
 	
+	// Taxa do sensor e agrupamento no FIFO do sensor. Os eventos chegam numa
+	// thread prpria (ver SensorIngest), que s copia as amostras para a fila
+	// do SensorWorker; o processamento acontece na thread do SensorWorker.
+	static final int PERIODO_SENSOR_US = 10000;   // 100 Hz
+	static final int LATENCIA_MAX_US = 100000;    // grupos de at 100 ms
+	SensorIngest captura;
+	SensorWorker processamento;
+	
+	// Gravidade tirada dos trs eixos: do sensor TYPE_GRAVITY, se existe,
+	// ou de um passa-baixas no prprio acelermetro.
+	static final int PERIODO_GRAVIDADE_US = 20000; // 50 Hz
+	GravityCompensator gravidade = new GravityCompensator();
+	SensorIngest capturaGravidade; // null se no h sensor de gravidade
+	
 	TextView tituloAcc;
 	TextView accX=null;
 	TextView accY=null;
@@ -51,39 +58,30 @@ public class AccMActivity extends ActionBarActivity implements SensorEventListen
 	TextView posY=null;
 	TextView posZ=null;
 	
-	ArrayList<Double> AccSalvas;
-	ArrayList<Double> VelSalvas;
-	ArrayList<Double> PosSalvas;
-	ArrayList<Double> AccRx;
-	ArrayList<Double> AccRy;
-	ArrayList<Double> AccRz;
-	
-	double Vx = 0;
-	double Vy = 0;
-	double Vz = 0;
-	double Sx = 0;
-	double Sy = 0;
-	double Sz = 0;
-	double MediavarianciaRx;
-	double MediavarianciaRy;
-	double MediavarianciaRz;
-	double varianciaRx;
-	double varianciaRy;
-	double varianciaRz;
+	// Pedidas pela tela, comeadas e terminadas pela thread do sensor
+	Gravacao gravacaoAcc;
+	Gravacao gravacaoVel;
+	Gravacao gravacaoPos;
 	
+	AccelPipeline pipeline = new AccelPipeline(); // Filtro Kalman e integrais de cada eixo
+	KalmanTuner ajuste = new KalmanTuner(KalmanTuner.DEFAULT_WINDOW, KalmanTuner.DEFAULT_PERIOD); // Parmetros dos filtros
+	StateSnapshot estado = new StateSnapshot();   // ltimo estado do pipeline, lido pela tela
 	
-	boolean gravaAcc = false;
-	boolean gravaVel = false;
-	boolean gravaPos = false;
-	boolean valorR = false;
+	// A tela  atualizada a uma taxa fixa, independente da taxa do sensor.
+	static final long PERIODO_TELA_MS = 66; // ~15 Hz
+	static final char[] EIXOS = { 'x', 'y', 'z' };
 	
-	int cont;
+	FastDecimalFormat decimal = new FastDecimalFormat(3, new DecimalFormatSymbols().getDecimalSeparator());
+	TextView[] valores;  // Na mesma ordem de AccelPipeline.copyState
+	char[][] textos;     // Um buffer por TextView (setText(char[]) guarda a referncia)
 	
-	DecimalFormat decimal = new DecimalFormat( "0.###" );
-	
-	PdsKalman1D fx = new PdsKalman1D (1,1,1,1);
-	PdsKalman1D fy = new PdsKalman1D (1,1,1,1);
-	PdsKalman1D fz = new PdsKalman1D (1,1,1,1);
+	Handler tela = new Handler();
+	Runnable atualizaTela = new Runnable() {
+		public void run() {
+			mostrarEstado();
+			tela.postDelayed(this, PERIODO_TELA_MS);
+		}
+	};
 
 	
 	@Override
@@ -93,6 +91,19 @@ public class AccMActivity extends ActionBarActivity implements SensorEventListen
 		
 		sm = (SensorManager)getSystemService(Context.SENSOR_SERVICE); // Acessando os sensores
 		acelerometro = sm.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);// Acessando o acelerometro 
+		processamento = new SensorWorker(SensorWorker.DEFAULT_CAPACITY, this);
+		captura = new SensorIngest(sm, acelerometro, processamento);
+		captura.setSamplingPeriodUs(PERIODO_SENSOR_US);
+		captura.setMaxReportLatencyUs(LATENCIA_MAX_US);
+		
+		pipeline.setGravityCompensator(gravidade);
+		processamento.setGravityCompensator(gravidade);
+		Sensor sensorGravidade = sm.getDefaultSensor(Sensor.TYPE_GRAVITY);
+		if (sensorGravidade != null) {
+			capturaGravidade = new SensorIngest(sm, sensorGravidade, processamento);
+			capturaGravidade.setSamplingPeriodUs(PERIODO_GRAVIDADE_US);
+			capturaGravidade.setMaxReportLatencyUs(LATENCIA_MAX_US);
+		}
 
 		tituloAcc = (TextView) findViewById(R.id.textView7);
 		accX = (TextView) findViewById(R.id.textView1);
@@ -112,20 +123,25 @@ public class AccMActivity extends ActionBarActivity implements SensorEventListen
 		posX = (TextView) findViewById(R.id.TextView09);
 		posY = (TextView) findViewById(R.id.TextView10);
 		posZ = (TextView) findViewById(R.id.TextView11);
+		
+		valores = new TextView[] { accX, accY, accZ, accXF, accYF, accZF, velX, velY, velZ, posX, posY, posZ };
+		textos = new char[valores.length][2 + decimal.maxLength()];
+		
+		gravacaoAcc = new Gravacao("aceleracoes_sem_filtro.pdsc", tituloAcc, "Aceleraes");
+		gravacaoVel = new Gravacao("velocidades.pdsc", tituloVel, "Velocidades");
+		gravacaoPos = new Gravacao("posicoes.pdsc", tituloPos, "Posies");
 
-		AccSalvas = new ArrayList<Double>();
-		VelSalvas = new ArrayList<Double>();
-		PosSalvas = new ArrayList<Double>();
-		AccRx = new ArrayList<Double>();
-		AccRy = new ArrayList<Double>();
-		AccRz = new ArrayList<Double>();
+		// As primeiras amostras com o celular parado so o repouso da calibrao;
+		// se ele se mexe antes, o repouso recomea (ver KalmanTuner).
+		ajuste.calibrate();
 		
 		 final Button gravarAcc = (Button) this.findViewById(R.id.button1);
 	        gravarAcc.setOnClickListener(new View.OnClickListener() {
 	            public void onClick(View v) {
 	            
+	            	if (gravacaoAcc.ligada()) return; // J est gravando
 	            	tituloAcc.setText("Gravando Acc");
-	            	gravaAcc = true;
+	            	gravacaoAcc.pedir();
 	            	
 	            }
 	        });
@@ -134,8 +150,9 @@ public class AccMActivity extends ActionBarActivity implements SensorEventListen
 	        salvaAcc.setOnClickListener(new View.OnClickListener() {
 	            public void onClick(View v) {      	
 	            	
-	            	salvarAceleracoes();
-	            	gravaAcc = false;
+	            	if (!gravacaoAcc.ligada()) return; // No est gravando
+	            	tituloAcc.setText("Salvando Acc");
+	            	gravacaoAcc.pedir();
 	            }
 	        });
 	        
@@ -143,8 +160,9 @@ public class AccMActivity extends ActionBarActivity implements SensorEventListen
 	        gravarVel.setOnClickListener(new View.OnClickListener() {
 	            public void onClick(View v) {
 	            
+	            	if (gravacaoVel.ligada()) return; // J est gravando
 	            	tituloVel.setText("Gravando Vel");
-	            	gravaVel = true;
+	            	gravacaoVel.pedir();
 	            	
 	            }
 	        });
@@ -153,8 +171,9 @@ public class AccMActivity extends ActionBarActivity implements SensorEventListen
 	        salvaVel.setOnClickListener(new View.OnClickListener() {
 	            public void onClick(View v) {      	
 	            	
-	            	salvarVelocidades();
-	            	gravaVel = false;
+	            	if (!gravacaoVel.ligada()) return; // No est gravando
+	            	tituloVel.setText("Salvando Vel");
+	            	gravacaoVel.pedir();
 	            }
 	        });
 	        
@@ -163,8 +182,9 @@ public class AccMActivity extends ActionBarActivity implements SensorEventListen
 	        gravarPos.setOnClickListener(new View.OnClickListener() {
 	            public void onClick(View v) {
 	            
+	            	if (gravacaoPos.ligada()) return; // J est gravando
 	            	tituloPos.setText("Gravando Pos");
-	            	gravaPos = true;
+	            	gravacaoPos.pedir();
 	            	
 	            }
 	        });
@@ -173,8 +193,9 @@ public class AccMActivity extends ActionBarActivity implements SensorEventListen
 	        salvaPos.setOnClickListener(new View.OnClickListener() {
 	            public void onClick(View v) {      	
 	            	
-	            	salvarPosicoes();
-	            	gravaPos = false;
+	            	if (!gravacaoPos.ligada()) return; // No est gravando
+	            	tituloPos.setText("Salvando Pos");
+	            	gravacaoPos.pedir();
 	            }
 	        });
 		
@@ -184,14 +205,24 @@ public class AccMActivity extends ActionBarActivity implements SensorEventListen
 	@Override
 	protected void onResume() {
 		super.onResume();
-		sm.registerListener(this, acelerometro, SensorManager.SENSOR_DELAY_NORMAL); // Inicia o processo de captura do acelerometro
-
+		processamento.start();
+		if (capturaGravidade != null) capturaGravidade.start();
+		captura.start(); // Inicia o processo de captura do acelerometro
+		tela.postDelayed(atualizaTela, PERIODO_TELA_MS);
 	}
 
 	@Override
 	protected void onPause() {
 		super.onPause();
-		sm.unregisterListener(this); // Ir parar o processo de captura do sensor
+		captura.stop(); // Ir parar o processo de captura do sensor
+		if (capturaGravidade != null) capturaGravidade.stop();
+		processamento.stop(); // Processa o que ficou na fila
+		// Com a thread do SensorWorker parada, as gravaes abertas so salvas
+		// aqui: se o processo for morto em segundo plano, os arquivos ficam completos.
+		gravacaoAcc.encerrar();
+		gravacaoVel.encerrar();
+		gravacaoPos.encerrar();
+		tela.removeCallbacks(atualizaTela);
 	}                                // Estes mtodos(onResume/onPause)fazem poupar bateria, pois sem eles o aplicativo vai continuar  
 	// captando informaes mesmo que o usurio no esteja interagindo
 
@@ -217,227 +248,221 @@ public class AccMActivity extends ActionBarActivity implements SensorEventListen
 
 	
 	
-	private void salvarAceleracoes() {
-    	String filename = "aceleracoes_sem_filtro.txt";
-
-    	FileOutputStream outputStream;
-    	String entrada = new String();
-    	int ii=0;
-    	for (Double d : AccSalvas) {
-    		if(ii==3) ii=0;
-    		entrada = entrada.concat(d.toString());
-    		if(ii!=2) entrada = entrada.concat("\t");
-    		else     entrada = entrada.concat("\n");
-    		ii++;
-    	}
-    	
-    	File file = new File("/storage/emulated/0", filename);
-
-    	try {
-    	  outputStream = new FileOutputStream(file);
-    	  outputStream.write(entrada.getBytes());
-    	  outputStream.close();
-    	  tituloAcc.setText("Aceleraes");    	  
-    	} catch (Exception e) {
-    	  e.printStackTrace();
-    	}
-    }
-
-    
-    private void salvarVelocidades() {
-    	String filename = "velocidades.txt";
-
-    	FileOutputStream outputStream;
-    	String entrada2 = new String();
-    	int iii=0;
-    	for (Double d : VelSalvas) {
-    		
-    		if(iii==3) iii=0;
-    		entrada2 = entrada2.concat(d.toString());
-    		if(iii!=2) entrada2 = entrada2.concat("\t");
-    		else     entrada2 = entrada2.concat("\n");
-    		iii++;
-    	}
-    	
-    	File file = new File("/storage/emulated/0", filename);
-
-    	try {
-    	  outputStream = new FileOutputStream(file);
-    	  outputStream.write(entrada2.getBytes());
-    	  outputStream.close();
-    	  tituloVel.setText("Velocidades");
-    	} catch (Exception e) {
-    	  e.printStackTrace();
-    	}
-    }
-    
-    private void salvarPosicoes() {
-    	String filename = "posicoes.txt";
-
-    	FileOutputStream outputStream;
-    	String entrada3 = new String();
-    	int iiii=0;
-    	for (Double d : PosSalvas) {
-    		
-    		if(iiii==3) iiii=0;
-    		entrada3 = entrada3.concat(d.toString());
-    		if(iiii!=2) entrada3 = entrada3.concat("\t");
-    		else     entrada3 = entrada3.concat("\n");
-    		iiii++;
-    	}
-    	
-    	File file = new File("/storage/emulated/0", filename);
-
-    	try {
-    	  outputStream = new FileOutputStream(file);
-    	  outputStream.write(entrada3.getBytes());
-    	  outputStream.close();
-    	  tituloPos.setText("Posies");
-    	} catch (Exception e) {
-    	  e.printStackTrace();
-    	}
-    }
-
+	/**
+	 * Cria o cabealho de uma gravao, com os parmetros que o ajuste est
+	 * usando em cada eixo. S na thread do SensorWorker, que  a do ajuste.
+	 */
+	private PdsCaptureHeader criarCabecalho() {
+		PdsCaptureHeader cabecalho = new PdsCaptureHeader(3, 8, SampleRecorder.DEFAULT_CHUNK_FRAMES);
+		// Taxa nominal pedida ao sensor; o tempo real de cada amostra tambm est no arquivo.
+		cabecalho.SetSampleRate(1000000.0 / PERIODO_SENSOR_US);
+		// Com o GravityCompensator nenhum valor constante  descontado: os dados j esto nivelados.
+		cabecalho.SetGravityOffset(pipeline.getGravityCompensator() != null ? 0 : pipeline.getGravityOffset());
+		// Os parmetros mudam durante a gravao (ver KalmanTuner): so gravados
+		// os de cada eixo no comeo e no fim, no um valor comum.
+		double[] k = new double[4];
+		for (int i = 0; i < 3; i++) {
+			ajuste.getParameters(i, k, 0);
+			cabecalho.SetKalmanStart(i, k[0], k[1], k[2], k[3]);
+		}
+		return cabecalho;
+	}
 	
-	@Override
-	public void onSensorChanged(SensorEvent event) {
-
-		double ax = (event.values[0]);
-		double ay = (event.values[1]);
-		double az = (event.values[2] - 9.78);
-		
-		 String AX = decimal.format(ax);
-		 String AY = decimal.format(ay);
-		 String AZ = decimal.format(az);
+	/**
+	 * Grava no cabealho os parmetros de cada eixo no fim da gravao. Deve
+	 * ser chamado antes de {@link CaptureExporter#finish()}, na thread do
+	 * SensorWorker ou com ela parada.
+	 */
+	private void terminarCabecalho(PdsCaptureHeader cabecalho) {
+		double[] k = new double[4];
+		for (int i = 0; i < 3; i++) {
+			ajuste.getParameters(i, k, 0);
+			cabecalho.SetKalmanEnd(i, k[0], k[1], k[2], k[3]);
+		}
+	}
+	
+	/**
+	 * Cria e inicia o exportador de uma gravao, em formato binrio PDSC
+	 * (ver PdsCaptureReader). O progresso e o fim da gravao so mostrados
+	 * no ttulo correspondente.
+	 */
+	private CaptureExporter iniciarExportador(SampleRecorder gravador, PdsCaptureHeader cabecalho,
+			String filename, final TextView titulo, final String nome) {
+		File file = new File("/storage/emulated/0", filename);
+		
+		CaptureExporter exportador = new CaptureExporter(gravador, file, cabecalho, new CaptureExporter.Listener() {
+			public void onProgress(CaptureExporter e, final long frames) {
+				tela.post(new Runnable() {
+					public void run() { titulo.setText("Gravando " + nome + ": " + frames); }
+				});
+			}
+			public void onFinished(CaptureExporter e, long frames) {
+				tela.post(new Runnable() {
+					public void run() { titulo.setText(nome); }
+				});
+			}
+			public void onError(CaptureExporter e, IOException ex) {
+				ex.printStackTrace();
+				tela.post(new Runnable() {
+					public void run() { titulo.setText("Erro ao salvar " + nome); }
+				});
+			}
+		});
+		exportador.start();
+		return exportador;
+	}
+	
+	/**
+	 * Uma gravao (Acc, Vel ou Pos). A tela s pede para gravar ou salvar;
+	 * quem comea e termina a gravao  a thread do SensorWorker, entre dois
+	 * blocos (ver {@link #atender()}). Assim nenhuma amostra  gravada depois
+	 * de {@link CaptureExporter#finish()}. Em onPause, com a thread parada, a
+	 * gravao aberta  salva por {@link #encerrar()}.
+	 */
+	class Gravacao {
+		final String arquivo;
+		final TextView titulo;
+		final String nome;
+		
+		// Nmero de pedidos da tela, mpar enquanto ela quer gravar. S a tela escreve.
+		volatile int pedidos = 0;
+		
+		// S a thread do SensorWorker usa (ou a tela, com ela parada)
+		int atendidos = 0;
+		SampleRecorder amostras; // null se no est gravando
+		PdsCaptureHeader cabecalho;
+		CaptureExporter exportador;
+		
+		Gravacao(String arquivo, TextView titulo, String nome) {
+			this.arquivo = arquivo;
+			this.titulo = titulo;
+			this.nome = nome;
+		}
 		
-		accX.setText("x:"+(AX));
-		accY.setText("y:"+(AY));
-		accZ.setText("z:"+(AZ));
+		/** Na tela: true se o ltimo pedido foi para gravar. */
+		boolean ligada() {
+			return (pedidos & 1) != 0;
+		}
 		
-
-		if (gravaAcc) {
-			AccSalvas.add(ax);
-			AccSalvas.add(ay);
-			AccSalvas.add(az);
+		/** Na tela: pede para gravar, se estava parada, ou para salvar. */
+		void pedir() {
+			pedidos = pedidos + 1;
 		}
 		
-		if (valorR) {
-			AccRx.add(ax);
-			AccRy.add(ay);
-			AccRz.add(az);
-			cont++;
+		/** Na thread do SensorWorker, antes de um bloco: atende o ltimo pedido da tela. */
+		void atender() {
+			int p = pedidos;
+			if (p == atendidos) return;
+			atendidos = p;
 			
-		}// Precionar o boto para parametrizar os valores do filtro (exibir no textview da rea de parametrizao
-		 // para aguardar enquanto os valores so calculados at que seja emitida uma mensagem de fim), a varivel 
-		 // valorR se torna true, calcula a varincia com os valores de AccR, que ser passada para o filtro, aps 
-		 // o aviso de que j est pronto precionar o boto de ok para retornar a tela inicial e passar a varivel 
-		 // valorR para false.
-		
-		if (cont == 800){
-			for(int i = 0; i < 800; ++i) {
-				MediavarianciaRx += AccRx.get(i); //conferir aqui tambm, pois depende de como calcular a varincia.
-				MediavarianciaRy += AccRy.get(i);
-				MediavarianciaRz += AccRz.get(i);
+			if ((p & 1) != 0) {
+				if (exportador == null) {
+					amostras = SampleRecorder.growable(SampleRecorder.DEFAULT_CHUNK_FRAMES);
+					cabecalho = criarCabecalho();
+					exportador = iniciarExportador(amostras, cabecalho, arquivo, titulo, nome);
+				}
+			} else if (exportador != null) {
+				salvar();
+			} else {
+				// Gravar e salvar antes do mesmo bloco: no houve arquivo.
+				tela.post(new Runnable() {
+					public void run() { titulo.setText(nome); }
+				});
 			}
-		MediavarianciaRx = MediavarianciaRx/800.0d ;
-		MediavarianciaRy = MediavarianciaRy/800.0d ;
-		MediavarianciaRz = MediavarianciaRz/800.0d ;
 		}
 		
-		if (cont > 800){
-			
-			//Passar para o textview na rea de parametrizao que est pronto e pode precionar ok para retornar.
-			
+		/**
+		 * Na tela, depois de SensorWorker.stop(): salva a gravao aberta, se
+		 * h uma, e descarta os pedidos que no foram atendidos.
+		 */
+		void encerrar() {
+			if (ligada()) pedir();
+			atendidos = pedidos;
+			if (exportador != null) salvar();
+			else titulo.setText(nome);
 		}
 		
-		
-		double hatax = fx.EvaluateValue(ax);
-		double hatay = fy.EvaluateValue(ay);
-		double hataz = fz.EvaluateValue(az);
-		
-		 String Hatax = decimal.format(hatax);
-		 String Hatay = decimal.format(hatay);
-		 String Hataz = decimal.format(hataz);
-		
-		
-		accXF.setText("x:"+(Hatax));
-		accYF.setText("y:"+(Hatay));
-		accZF.setText("z:"+(Hataz));
-		
-		
-		
-		//--------------------------------------------------------------------- INTEGRAIS SIMPLES
-		
-		
-		double dt = 0.1;
-		double VxBk=0;
-		double VyBk=0;
-		double VzBk=0;
-		double SxBk=0;
-		double SyBk=0;
-		double SzBk=0;
-						
-		VxBk = Vx;
-		VyBk = Vy;
-		VzBk = Vz;
-		SxBk = Sx;
-		SyBk = Sy;
-		SzBk = Sz;
+		// S na thread que grava, ou com ela parada: depois daqui no entra mais nada.
+		private void salvar() {
+			amostras = null;
+			terminarCabecalho(cabecalho);
+			exportador.finish();
+			exportador = null;
+			cabecalho = null;
+		}
+	}
+
+	
+	/**
+	 * Chamado na thread do SensorWorker com um bloco de amostras. O pipeline
+	 * e o ajuste s so usados aqui; a tela l o estado por StateSnapshot,
+	 * publicado uma vez por bloco. Os pedidos de gravar e salvar tambm so
+	 * atendidos aqui, entre dois blocos.
+	 */
+	public void onFrames(long[] tempos, double[] xyz, int n) {
+		gravacaoAcc.atender();
+		gravacaoVel.atender();
+		gravacaoPos.atender();
+		for (int i = 0; i < n; i++) {
+			processar(tempos[i], xyz[3 * i], xyz[3 * i + 1], xyz[3 * i + 2]);
+		}
+		estado.publish(pipeline);
+	}
+
+	private void processar(long tempo, double x, double y, double z) {
+
+		pipeline.process(tempo, x, y, z);
+		ajuste.update(pipeline);
+
+		double ax = pipeline.getAccX();
+		double ay = pipeline.getAccY();
+		double az = pipeline.getAccZ();
+
+		long t = pipeline.getTimestamp();
+
+		SampleRecorder acc = gravacaoAcc.amostras;
+		if (acc != null) {
+			acc.append(t, ax, ay, az);
+		}
 		
 		//----------------------------------------- VELOCIDADE
 		
+		double Vx = pipeline.getVelX();
+		double Vy = pipeline.getVelY();
+		double Vz = pipeline.getVelZ();
 		
-		this.current_timeAcel=event.timestamp;	
-		if(this.last_timeAcel==0)	this.last_timeAcel=this.current_timeAcel; 
-		
-		Vx = VxBk + hatax*(this.current_timeAcel-this.last_timeAcel)/1000000000.0;
-		Vy = VyBk + hatay*(this.current_timeAcel-this.last_timeAcel)/1000000000.0;
-		Vz = VzBk + hataz*(this.current_timeAcel-this.last_timeAcel)/1000000000.0;
-		
-		 String VX = decimal.format(Vx);
-		 String VY = decimal.format(Vy);
-		 String VZ = decimal.format(Vz);
-		
-		
-		velX.setText("x:"+(VX));
-		velY.setText("y:"+(VY));
-		velZ.setText("z:"+(VZ));
-		
-		if (gravaVel) {
-			VelSalvas.add(Vx);
-			VelSalvas.add(Vy);
-			VelSalvas.add(Vz);
-		
+		SampleRecorder vel = gravacaoVel.amostras;
+		if (vel != null) {
+			vel.append(t, Vx, Vy, Vz);
 		}
 		
 		//----------------------------------------- DESLOCAMENTO
 
-		Sx = SxBk + Vx*dt;
-		Sy = SyBk + Vy*dt;
-		Sz = SzBk + Vz*dt;
-		
-		String SX = decimal.format(Sx);
-		String SY = decimal.format(Sy);
-		String SZ = decimal.format(Sz);
-		
+		double Sx = pipeline.getPosX();
+		double Sy = pipeline.getPosY();
+		double Sz = pipeline.getPosZ();
 		
-		posX.setText("x:"+(SX));
-		posY.setText("y:"+(SY));
-		posZ.setText("z:"+(SZ));
-		
-		if (gravaPos) {
-			PosSalvas.add(Sx);
-			PosSalvas.add(Sy);
-			PosSalvas.add(Sz);
+		SampleRecorder pos = gravacaoPos.amostras;
+		if (pos != null) {
+			pos.append(t, Sx, Sy, Sz);
 		}
 		
-		this.last_timeAcel=this.current_timeAcel;
-		
 	}
 
-	@Override
-	public void onAccuracyChanged(Sensor sensor, int accuracy) {
-		// TODO Auto-generated method stub
-		
+	/**
+	 * Mostra na tela o ltimo estado publicado pelo pipeline, sem criar Strings.
+	 */
+	private void mostrarEstado() {
+		double[] s = estado.poll();
+		if (s == null) return;
+		
+		for (int i = 0; i < valores.length; i++) {
+			char[] t = textos[i];
+			t[0] = EIXOS[i % 3];
+			t[1] = ':';
+			int n = 2 + decimal.format(s[i], t, 2);
+			valores[i].setText(t, 0, n);
+		}
 	}
+
 }
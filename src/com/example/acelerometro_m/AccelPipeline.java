@@ -0,0 +1,405 @@
+package com.example.acelerometro_m;
+
+import net.sourceforge.pdsplibj.pdsdf.PdsKalman1DArray;
+import net.sourceforge.pdsplibj.pdsdf.PdsKalmanND;
+import net.sourceforge.pdsplibj.pdsra.PdsMatrix;
+import net.sourceforge.pdsplibj.pdsra.PdsVector;
+
+/**
+ * Motor de processamento das amostras do acelerômetro.
+ *
+ * Recebe amostras (timestamp, ax, ay, az) e calcula a aceleração sem a
+ * gravidade (um valor constante descontado do eixo Z ou, com
+ * {@link #setGravityCompensator(GravityCompensator)}, a gravidade estimada
+ * nos três eixos, com o resultado num sistema nivelado), a aceleração
+ * filtrada com um filtro Kalman por eixo (os três eixos avaliados juntos
+ * num {@link PdsKalman1DArray}), a velocidade e o deslocamento. As
+ * integrais usam os tempos reais das amostras, com o método escolhido em
+ * {@link #setIntegrator(int)}. Quando um {@link StillnessDetector} vê que
+ * o celular está parado, a velocidade é zerada e o bias da aceleração é
+ * corrigido (ZUPT, ver {@link #setZeroVelocityUpdate(boolean)}), para as
+ * integrais não derivarem sem limite.
+ *
+ * Com {@link #setFusedKalman(boolean)} o filtro e as integrais são trocados
+ * por um {@link PdsKalmanND} por eixo com o estado [s, v, a], que usa o
+ * intervalo real entre as amostras: a aceleração filtrada, a velocidade e o
+ * deslocamento saem juntos do mesmo filtro. Esta classe não depende do
+ * Android, então pode ser usada para reprocessar arquivos gravados fora do
+ * celular.
+ *
+ * <pre>
+ * AccelPipeline p = new AccelPipeline();
+ * p.process(event.timestamp, event.values[0], event.values[1], event.values[2]);
+ * double vx = p.getVelX();
+ * </pre>
+ */
+public class AccelPipeline {
+
+	/** Valor da gravidade que é descontado do eixo Z. */
+	public static final double GRAVITY = 9.78;
+
+	/** Parâmetros A, H, Q e R do filtro Kalman de cada eixo. */
+	public static final double KALMAN_A = 1;
+	public static final double KALMAN_H = 1;
+	public static final double KALMAN_Q = 1;
+	public static final double KALMAN_R = 1;
+
+	/**
+	 * Intensidade da sobreaceleração (jerk) branca do modelo [s, v, a], em
+	 * (m/s^3)^2/s, usada no modo {@link #setFusedKalman(boolean)}.
+	 */
+	public static final double KALMAN_JERK_Q = 100;
+
+	/** Número de valores por amostra escritos por {@link #copyState(double[], int)}. */
+	public static final int STATE_SIZE = 12;
+
+	private double gravityOffset;
+	private GravityCompensator gravity; // null: só gravityOffset no eixo Z
+
+	private PdsKalman1DArray filter;
+	// Entrada e saída do filtro, x,y,z
+	private final double[] z = new double[3];
+	private final double[] hat = new double[3];
+
+	// Modo [s, v, a]: um filtro por eixo, sem PdsKalman1DArray nem integrais
+	private boolean fused = false;
+	private PdsKalmanND[] state;
+	private double jerkQ = KALMAN_JERK_Q;
+
+	// Integrais da aceleração filtrada (velocidade) e da velocidade (deslocamento)
+	private int integrator = Integrator.TRAPEZOID;
+	private final Integrator[] vel = new Integrator[3];
+	private final Integrator[] pos = new Integrator[3];
+
+	// ZUPT: detector de repouso e bias descontado da aceleração de cada eixo
+	private boolean zupt = true;
+	private final StillnessDetector stillness = new StillnessDetector();
+	private final double[] bias = new double[3];
+	private int biasHold;
+	private long zeroVelocityUpdates;
+
+	// Chamadas a reset(), para quem guarda parâmetros dos filtros (KalmanTuner)
+	private long resets;
+
+	private long lastTimestamp = 0;
+	private long timestamp = 0;
+	// Amostras ignoradas no modo [s, v, a] por tempo repetido ou anterior
+	private long duplicates;
+
+	// Aceleração sem gravidade
+	private double ax, ay, az;
+	// Aceleração filtrada
+	private double hatax, hatay, hataz;
+	// Velocidade
+	private double vx, vy, vz;
+	// Deslocamento
+	private double sx, sy, sz;
+
+	public AccelPipeline() {
+		this(GRAVITY);
+	}
+
+	/**
+	 * @param gravityOffset É o valor descontado da leitura do eixo Z.
+	 */
+	public AccelPipeline(double gravityOffset) {
+		this.gravityOffset = gravityOffset;
+		reset();
+	}
+
+	/**
+	 * Volta o motor ao estado inicial: filtros novos e integrais em zero.
+	 */
+	public void reset() {
+		resets++;
+		filter = new PdsKalman1DArray(3, KALMAN_A, KALMAN_H, KALMAN_Q, KALMAN_R);
+		// Sem a fonte simulada U_k: o mesmo arquivo gravado sempre da o mesmo resultado.
+		filter.DisableNoise();
+
+		state = new PdsKalmanND[3];
+		PdsMatrix p0 = new PdsMatrix(3, 3);
+		// Deslocamento e velocidade começam exatamente em zero; só a aceleração é incerta.
+		p0.SetValue(2, 2, KALMAN_R);
+		for (int i = 0; i < 3; i++) {
+			state[i] = new PdsKalmanND(3, 1);
+			state[i].SetR(KALMAN_R);
+			state[i].Init(new PdsVector(3), p0);
+		}
+
+		for (int i = 0; i < 3; i++) {
+			vel[i] = Integrator.create(integrator);
+			pos[i] = Integrator.create(integrator);
+		}
+
+		if (gravity != null) gravity.reset();
+
+		stillness.restart(); // mantém o limiar escolhido
+		bias[0] = bias[1] = bias[2] = 0;
+		biasHold = 0;
+		zeroVelocityUpdates = 0;
+
+		lastTimestamp = 0;
+		timestamp = 0;
+		duplicates = 0;
+		ax = ay = az = 0;
+		hatax = hatay = hataz = 0;
+		vx = vy = vz = 0;
+		sx = sy = sz = 0;
+	}
+
+	/**
+	 * @return O número de vezes que o motor foi reiniciado, também pelos
+	 *         métodos que chamam {@link #reset()}. Depois de um reset os
+	 *         filtros voltam aos parâmetros padrão ({@link #KALMAN_A}...).
+	 */
+	public long getResets() { return resets; }
+
+	/**
+	 * Troca os parâmetros do filtro Kalman de um eixo. O filtro continua
+	 * desde o estado atual, sem reiniciar. No modo [s, v, a] só r é usado.
+	 *
+	 * @param axis Eixo: 0 (x), 1 (y) ou 2 (z).
+	 */
+	public void setKalmanParameters(int axis, double a, double h, double q, double r) {
+		filter.SetParameters(axis, a, h, q, r);
+		state[axis].SetR(r);
+	}
+
+	/**
+	 * Liga ou desliga o modo [s, v, a]: um {@link PdsKalmanND} por eixo que
+	 * estima juntos a aceleração, a velocidade e o deslocamento, com a matriz
+	 * de transição calculada do intervalo real entre amostras. Desligado, a
+	 * aceleração é filtrada com um {@link PdsKalman1DArray} e depois integrada.
+	 * Reinicia o motor.
+	 */
+	public void setFusedKalman(boolean enable) {
+		fused = enable;
+		reset();
+	}
+
+	public boolean isFusedKalman() { return fused; }
+
+	/**
+	 * Troca o método das integrais da velocidade e do deslocamento (ver
+	 * {@link Integrator#create(int)}). O padrão é {@link Integrator#TRAPEZOID}.
+	 * Não vale no modo [s, v, a]. Reinicia o motor.
+	 */
+	public void setIntegrator(int method) {
+		Integrator.create(method); // valida o método antes de mudar o estado
+		integrator = method;
+		reset();
+	}
+
+	public int getIntegrator() { return integrator; }
+
+	/**
+	 * Troca o jeito de tirar a gravidade. Com um {@link GravityCompensator}
+	 * a gravidade é tirada dos três eixos e a aceleração (e portanto a
+	 * velocidade e o deslocamento) fica no sistema nivelado dele, com Z para
+	 * cima; com null, {@link #getGravityOffset()} é descontado do eixo Z do
+	 * celular. Reinicia o motor.
+	 */
+	public void setGravityCompensator(GravityCompensator compensator) {
+		gravity = compensator;
+		reset();
+	}
+
+	public GravityCompensator getGravityCompensator() { return gravity; }
+
+	/**
+	 * Liga ou desliga a atualização de velocidade zero (ZUPT), ligada por
+	 * padrão. Desligada, o bias corrigido até agora continua sendo descontado.
+	 */
+	public void setZeroVelocityUpdate(boolean enable) {
+		zupt = enable;
+	}
+
+	public boolean isZeroVelocityUpdate() { return zupt; }
+
+	/**
+	 * @return O detector de repouso usado pelo ZUPT, para mudar o limiar. É
+	 *         sempre o mesmo: {@link #reset()} só descarta a janela dele.
+	 */
+	public StillnessDetector getStillnessDetector() { return stillness; }
+
+	/**
+	 * @return O número de amostras ignoradas por tempo repetido ou anterior
+	 *         ao da última (no modo normal, as do integrador da velocidade X).
+	 */
+	public long getDuplicates() {
+		return fused ? duplicates : vel[0].getDuplicates();
+	}
+
+	/** @return O número de amostras em que a velocidade foi zerada. */
+	public long getZeroVelocityUpdates() { return zeroVelocityUpdates; }
+
+	/**
+	 * @param axis Eixo: 0 (x), 1 (y) ou 2 (z).
+	 * @return O bias estimado pelo ZUPT e descontado da aceleração do eixo.
+	 */
+	public double getBias(int axis) { return bias[axis]; }
+
+	/**
+	 * Troca a intensidade da sobreaceleração do modo [s, v, a] (ver
+	 * {@link #KALMAN_JERK_Q}). Vale a partir da próxima amostra.
+	 */
+	public void setJerkQ(double q) {
+		jerkQ = q;
+	}
+
+	/**
+	 * Processa uma amostra do acelerômetro.
+	 *
+	 * @param timestamp Tempo da amostra em nanossegundos (SensorEvent.timestamp).
+	 * @param rawX Leitura do eixo X em m/s^2.
+	 * @param rawY Leitura do eixo Y em m/s^2.
+	 * @param rawZ Leitura do eixo Z em m/s^2 (inclui a gravidade).
+	 */
+	public void process(long timestamp, double rawX, double rawY, double rawZ) {
+		this.timestamp = timestamp;
+		if (gravity != null) {
+			gravity.process(timestamp, rawX, rawY, rawZ);
+			ax = gravity.getX() - bias[0];
+			ay = gravity.getY() - bias[1];
+			az = gravity.getZ() - bias[2];
+		} else {
+			ax = rawX - bias[0];
+			ay = rawY - bias[1];
+			az = rawZ - gravityOffset - bias[2];
+		}
+
+		if (fused) {
+			// Como no Integrator: um evento repetido ou fora de ordem daria
+			// dt <= 0 e um Q negativo, então a amostra é ignorada.
+			if (lastTimestamp != 0 && timestamp <= lastTimestamp) {
+				duplicates++;
+				return;
+			}
+			processFused(lastTimestamp == 0 ? 0 : (timestamp - lastTimestamp) / 1000000000.0);
+			lastTimestamp = timestamp;
+			if (zupt) zeroVelocityUpdate();
+			return;
+		}
+
+		z[0] = ax;
+		z[1] = ay;
+		z[2] = az;
+		filter.EvaluateValues(z, hat);
+		hatax = hat[0];
+		hatay = hat[1];
+		hataz = hat[2];
+
+		//----------------------------------------- VELOCIDADE
+
+		vx = vel[0].update(timestamp, hatax);
+		vy = vel[1].update(timestamp, hatay);
+		vz = vel[2].update(timestamp, hataz);
+
+		//----------------------------------------- DESLOCAMENTO
+
+		sx = pos[0].update(timestamp, vx);
+		sy = pos[1].update(timestamp, vy);
+		sz = pos[2].update(timestamp, vz);
+
+		if (zupt) zeroVelocityUpdate();
+	}
+
+	// Se o celular está parado: zera a velocidade e, uma vez por janela,
+	// passa a média da aceleração filtrada (o que sobrou de bias) para o bias.
+	// Antes da primeira correção o bias é desconhecido e pode ser grande (o
+	// celular inclinado), então basta a variância baixa.
+	private void zeroVelocityUpdate() {
+		if (biasHold > 0) biasHold--;
+		boolean still = stillness.update(hatax, hatay, hataz);
+		if (!still && !(zeroVelocityUpdates == 0 && stillness.isQuiet())) return;
+
+		if (biasHold == 0) {
+			// A janela tem amostras com o bias antigo até ela se renovar.
+			for (int i = 0; i < 3; i++) bias[i] += stillness.getMean(i);
+			biasHold = stillness.getWindow();
+		}
+
+		vx = vy = vz = 0;
+		for (int i = 0; i < 3; i++) {
+			vel[i].setValue(0);
+			state[i].SetState(1, 0);
+		}
+		zeroVelocityUpdates++;
+	}
+
+	// Predição e correção dos três filtros [s, v, a] com o dt real.
+	private void processFused(double dt) {
+		z[0] = ax;
+		z[1] = ay;
+		z[2] = az;
+		for (int i = 0; i < 3; i++) {
+			state[i].SetConstantAcceleration(dt, jerkQ);
+			state[i].EvaluateValue(z[i]);
+		}
+		PdsKalmanND fx = state[0], fy = state[1], fz = state[2];
+		sx = fx.GetState(0); vx = fx.GetState(1); hatax = fx.GetState(2);
+		sy = fy.GetState(0); vy = fy.GetState(1); hatay = fy.GetState(2);
+		sz = fz.GetState(0); vz = fz.GetState(1); hataz = fz.GetState(2);
+	}
+
+	/**
+	 * Processa um bloco de amostras gravadas.
+	 *
+	 * @param timestamps Tempos das amostras em nanossegundos.
+	 * @param xyz Leituras intercaladas x,y,z (3 valores por amostra).
+	 * @param off Índice da primeira amostra a processar.
+	 * @param n Número de amostras a processar.
+	 * @param out Se não é null, recebe {@link #STATE_SIZE} valores por amostra
+	 *            (ver {@link #copyState(double[], int)}), a partir de out[0].
+	 */
+	public void processBatch(long[] timestamps, double[] xyz, int off, int n, double[] out) {
+		for (int i = 0; i < n; i++) {
+			int k = off + i;
+			process(timestamps[k], xyz[3 * k], xyz[3 * k + 1], xyz[3 * k + 2]);
+			if (out != null) copyState(out, i * STATE_SIZE);
+		}
+	}
+
+	/**
+	 * Copia o estado atual em dst: aceleração, aceleração filtrada,
+	 * velocidade e deslocamento, nessa ordem e com 3 eixos cada.
+	 *
+	 * @param dst Vetor de destino, com espaço para {@link #STATE_SIZE} valores.
+	 * @param off Posição inicial em dst.
+	 */
+	public void copyState(double[] dst, int off) {
+		dst[off] = ax;
+		dst[off + 1] = ay;
+		dst[off + 2] = az;
+		dst[off + 3] = hatax;
+		dst[off + 4] = hatay;
+		dst[off + 5] = hataz;
+		dst[off + 6] = vx;
+		dst[off + 7] = vy;
+		dst[off + 8] = vz;
+		dst[off + 9] = sx;
+		dst[off + 10] = sy;
+		dst[off + 11] = sz;
+	}
+
+	public double getGravityOffset() { return gravityOffset; }
+
+	/** @return O tempo, em nanossegundos, da última amostra processada. */
+	public long getTimestamp() { return timestamp; }
+
+	public double getAccX() { return ax; }
+	public double getAccY() { return ay; }
+	public double getAccZ() { return az; }
+
+	public double getFilteredX() { return hatax; }
+	public double getFilteredY() { return hatay; }
+	public double getFilteredZ() { return hataz; }
+
+	public double getVelX() { return vx; }
+	public double getVelY() { return vy; }
+	public double getVelZ() { return vz; }
+
+	public double getPosX() { return sx; }
+	public double getPosY() { return sy; }
+	public double getPosZ() { return sz; }
+}
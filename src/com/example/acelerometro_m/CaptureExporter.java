@@ -0,0 +1,228 @@
+package com.example.acelerometro_m;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.locks.LockSupport;
+
+import net.sourceforge.pdsplibj.pdsextras.PdsCaptureHeader;
+import net.sourceforge.pdsplibj.pdsextras.PdsCaptureWriter;
+
+/**
+ * Salva no disco, numa thread própria, as amostras de um {@link SampleRecorder}
+ * enquanto a gravação acontece.
+ *
+ * O arquivo é escrito aos poucos, em um de dois formatos:
+ * <ul>
+ * <li>texto, com uma amostra por linha ("x\ty\tz\n"), através de um
+ *     FileChannel com um buffer fixo; os números são formatados com um
+ *     {@link FastDecimalFormat} reaproveitado, sem criar Strings;</li>
+ * <li>binário (formato PDSC, com os tempos das amostras), através de um
+ *     {@link PdsCaptureWriter}, se o exportador foi criado com um
+ *     {@link PdsCaptureHeader}.</li>
+ * </ul>
+ * O {@link Listener} é chamado na thread do exportador.
+ *
+ * <pre>
+ * CaptureExporter e = new CaptureExporter(recorder, file, listener);
+ * e.start();
+ * ...
+ * e.finish(); // salva o que falta e fecha o arquivo
+ * </pre>
+ */
+public class CaptureExporter implements Runnable {
+
+	/** Avisos do exportador. São chamados na thread do exportador. */
+	public interface Listener {
+		/** Chamado periodicamente enquanto a gravação continua. */
+		void onProgress(CaptureExporter exporter, long frames);
+
+		/** Chamado quando o arquivo foi fechado com todas as amostras. */
+		void onFinished(CaptureExporter exporter, long frames);
+
+		/** Chamado se não foi possível escrever o arquivo. */
+		void onError(CaptureExporter exporter, IOException e);
+	}
+
+	/** Intervalo entre duas escritas no disco durante a gravação. */
+	public static final long PERIOD_MS = 200;
+
+	private static final int BATCH_FRAMES = 1024;
+	private static final int BUFFER_BYTES = 64 * 1024;
+
+	private final SampleRecorder recorder;
+	private final File file;
+	private final Listener listener;
+	private final PdsCaptureHeader header; // null no formato texto
+
+	private final double[] xyz = new double[3 * BATCH_FRAMES];
+
+	// Só no formato texto (null no binário).
+	private final FastDecimalFormat format;
+	private final char[] chars;
+	private final ByteBuffer buffer;
+
+	// Só no formato binário (null no texto).
+	private final long[] times;
+
+	private Thread thread;
+	private volatile boolean finishing = false;
+	private long frames = 0;
+
+	/**
+	 * Cria um exportador em formato texto.
+	 */
+	public CaptureExporter(SampleRecorder recorder, File file, Listener listener) {
+		this(recorder, file, null, listener);
+	}
+
+	/**
+	 * Cria um exportador em formato binário PDSC, ou texto se header é null.
+	 */
+	public CaptureExporter(SampleRecorder recorder, File file, PdsCaptureHeader header, Listener listener) {
+		this.recorder = recorder;
+		this.file = file;
+		this.header = header;
+		this.listener = listener;
+
+		if (header == null) {
+			format = new FastDecimalFormat(9, '.');
+			chars = new char[format.maxLength()];
+			buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+			times = null;
+		} else {
+			format = null;
+			chars = null;
+			buffer = null;
+			times = new long[BATCH_FRAMES];
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Começa a salvar numa thread nova.
+	 */
+	public void start() {
+		thread = new Thread(this, "CaptureExporter " + file.getName());
+		thread.start();
+	}
+
+	/**
+	 * Pede para salvar as amostras que faltam e fechar o arquivo. Não espera
+	 * a escrita terminar; o fim é avisado por {@link Listener#onFinished}.
+	 * No formato binário, o que foi trocado no {@link PdsCaptureHeader} antes
+	 * desta chamada é gravado no cabeçalho ao fechar o arquivo.
+	 */
+	public void finish() {
+		finishing = true;
+		LockSupport.unpark(thread);
+	}
+
+	public void run() {
+		if (header != null) runBinary();
+		else runText();
+	}
+
+	private void runText() {
+		FileOutputStream out = null;
+		try {
+			out = new FileOutputStream(file);
+			FileChannel channel = out.getChannel();
+			long reported = 0;
+
+			while (true) {
+				boolean last = finishing;
+
+				int n;
+				while ((n = recorder.drain(null, xyz, BATCH_FRAMES)) > 0) {
+					writeFrames(channel, n);
+				}
+				if (last) break;
+
+				if (frames != reported) {
+					reported = frames;
+					listener.onProgress(this, frames);
+				}
+				LockSupport.parkNanos(PERIOD_MS * 1000000L);
+			}
+
+			flush(channel);
+			out.close();
+			out = null;
+			listener.onFinished(this, frames);
+		} catch (IOException e) {
+			listener.onError(this, e);
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	private void runBinary() {
+		PdsCaptureWriter out = null;
+		try {
+			out = new PdsCaptureWriter(file.getPath(), header);
+			long reported = 0;
+
+			while (true) {
+				boolean last = finishing;
+
+				int n;
+				while ((n = recorder.drain(times, xyz, BATCH_FRAMES)) > 0) {
+					for (int i = 0; i < n; i++) out.WriteFrame(times[i], xyz, 3 * i);
+					frames += n;
+				}
+				if (last) break;
+
+				if (frames != reported) {
+					reported = frames;
+					listener.onProgress(this, frames);
+				}
+				LockSupport.parkNanos(PERIOD_MS * 1000000L);
+			}
+
+			PdsCaptureWriter w = out;
+			out = null;
+			w.Close();
+			listener.onFinished(this, frames);
+		} catch (IOException e) {
+			listener.onError(this, e);
+		} finally {
+			if (out != null) {
+				try {
+					out.Close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	private void writeFrames(FileChannel channel, int n) throws IOException {
+		int maxLine = 3 * (chars.length + 1);
+		for (int i = 0; i < 3 * n; i++) {
+			if (i % 3 == 0 && buffer.remaining() < maxLine) flush(channel);
+
+			int len = format.format(xyz[i], chars, 0);
+			for (int k = 0; k < len; k++) buffer.put((byte) chars[k]);
+			buffer.put((byte) (i % 3 != 2 ? '\t' : '\n'));
+		}
+		frames += n;
+	}
+
+	private void flush(FileChannel channel) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) channel.write(buffer);
+		buffer.clear();
+	}
+}
@@ -0,0 +1,109 @@
+package com.example.acelerometro_m;
+
+/**
+ * Formata números reais num vetor de caracteres já alocado, sem criar
+ * Strings. Equivale ao padrão "0.###" do DecimalFormat, com o número de
+ * casas decimais escolhido no construtor e sem zeros à direita.
+ *
+ * O valor é escalado para um long, então valores grandes perdem casas
+ * decimais: só são escritas as que cabem (com 9 casas, acima de uns 9e9).
+ * Acima de Long.MAX_VALUE o valor é limitado a Long.MAX_VALUE. NaN e os
+ * infinitos são escritos como "NaN", "Infinity" e "-Infinity".
+ *
+ * <pre>
+ * FastDecimalFormat f = new FastDecimalFormat(3, '.');
+ * int len = f.format(-1.23456, buf, 0);   // "-1.235"
+ * </pre>
+ */
+public class FastDecimalFormat {
+
+	// Maior valor escalado usado: abaixo de Long.MAX_VALUE (~9.22e18) com
+	// folga para o arredondamento.
+	private static final double MAX_SCALED = 9e18;
+
+	private static final char[] INFINITY = { 'I', 'n', 'f', 'i', 'n', 'i', 't', 'y' };
+
+	private final int fractionDigits;
+	private final long scale;
+	private final char separator;
+
+	/**
+	 * @param fractionDigits Número máximo de casas decimais (0 a 9).
+	 * @param separator Caractere usado como separador decimal.
+	 */
+	public FastDecimalFormat(int fractionDigits, char separator) {
+		if (fractionDigits < 0) fractionDigits = 0;
+		if (fractionDigits > 9) fractionDigits = 9;
+		this.fractionDigits = fractionDigits;
+		this.separator = separator;
+		long s = 1;
+		for (int i = 0; i < fractionDigits; i++) s *= 10;
+		this.scale = s;
+	}
+
+	/**
+	 * Maior número de caracteres que {@link #format(double, char[], int)} pode escrever.
+	 */
+	public int maxLength() {
+		return 1 + 19 + 1 + fractionDigits;
+	}
+
+	/**
+	 * Escreve value em dst a partir de off.
+	 *
+	 * @return O número de caracteres escritos.
+	 */
+	public int format(double value, char[] dst, int off) {
+		int p = off;
+
+		if (value != value) {
+			dst[p++] = 'N'; dst[p++] = 'a'; dst[p++] = 'N';
+			return p - off;
+		}
+
+		boolean negative = value < 0;
+		double abs = negative ? -value : value;
+
+		if (abs == Double.POSITIVE_INFINITY) {
+			if (negative) dst[p++] = '-';
+			for (int i = 0; i < INFINITY.length; i++) dst[p++] = INFINITY[i];
+			return p - off;
+		}
+
+		// Menos casas decimais até o valor escalado caber num long
+		long scale = this.scale;
+		int digits = fractionDigits;
+		while (digits > 0 && abs * scale >= MAX_SCALED) {
+			scale /= 10;
+			digits--;
+		}
+		if (abs >= MAX_SCALED) abs = Long.MAX_VALUE / scale;
+
+		long scaled = (long) (abs * scale + 0.5);
+		long intPart = scaled / scale;
+		long fracPart = scaled % scale;
+
+		if (negative && scaled != 0) dst[p++] = '-';
+
+		// parte inteira, escrita de trás para frente
+		int start = p;
+		do {
+			dst[p++] = (char) ('0' + (intPart % 10));
+			intPart /= 10;
+		} while (intPart != 0);
+		for (int i = start, j = p - 1; i < j; i++, j--) {
+			char c = dst[i]; dst[i] = dst[j]; dst[j] = c;
+		}
+
+		if (fracPart != 0) {
+			while (fracPart % 10 == 0) { fracPart /= 10; digits--; }
+			dst[p++] = separator;
+			for (int i = digits - 1; i >= 0; i--) {
+				dst[p + i] = (char) ('0' + (fracPart % 10));
+				fracPart /= 10;
+			}
+			p += digits;
+		}
+		return p - off;
+	}
+}
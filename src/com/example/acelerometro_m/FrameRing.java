@@ -0,0 +1,108 @@
+package com.example.acelerometro_m;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila circular de amostras de 3 eixos com tempo, para passar as amostras de
+ * uma thread (o sensor) para outra (o processamento) sem travas.
+ *
+ * Os vetores são criados no construtor: {@link #offer(long, double, double, double)}
+ * e {@link #drain(long[], double[], int)} não alocam nada. Só pode haver um
+ * escritor e um leitor. Se o leitor atrasa e a fila enche, as amostras novas
+ * são descartadas e contadas em {@link #getDropped()}; o escritor nunca espera.
+ */
+public class FrameRing {
+
+	private final int mask;
+	private final long[] t;
+	private final double[] xyz;
+
+	// Número de amostras já escritas (só o escritor muda) e já lidas (só o leitor muda)
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+
+	// Cópias locais do contador do outro lado, para não ler o volátil a cada amostra
+	private long tailCache; // só o escritor usa
+	private long headCache; // só o leitor usa
+
+	private volatile long dropped;
+
+	/**
+	 * @param capacity Número mínimo de amostras na fila (arredondado para
+	 *                 uma potência de 2).
+	 */
+	public FrameRing(int capacity) {
+		if (capacity < 1 || capacity > (1 << 28)) throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+		int n = Integer.highestOneBit(capacity);
+		if (n < capacity) n <<= 1;
+		mask = n - 1;
+		t = new long[n];
+		xyz = new double[3 * n];
+	}
+
+	public int capacity() {
+		return mask + 1;
+	}
+
+	/**
+	 * Acrescenta uma amostra. Só pode ser chamado pela thread que escreve.
+	 *
+	 * @return false se a fila está cheia (a amostra é descartada).
+	 */
+	public boolean offer(long time, double x, double y, double z) {
+		long h = head.get();
+		if (h - tailCache > mask) {
+			tailCache = tail.get();
+			if (h - tailCache > mask) {
+				dropped = dropped + 1;
+				return false;
+			}
+		}
+		int i = (int) h & mask;
+		t[i] = time;
+		xyz[3 * i] = x;
+		xyz[3 * i + 1] = y;
+		xyz[3 * i + 2] = z;
+		// Escrita volátil: o leitor que vê o novo head vê a amostra, e o
+		// escritor que lê depois se o leitor está dormindo vê o valor atual.
+		head.set(h + 1);
+		return true;
+	}
+
+	/**
+	 * Copia e tira da fila até max amostras, das mais antigas para as mais
+	 * novas. Só pode ser chamado pela thread que lê.
+	 *
+	 * @param dstT Recebe os tempos.
+	 * @param dstXyz Recebe x,y,z intercalados, 3 valores por amostra.
+	 * @param max Número máximo de amostras a copiar.
+	 * @return O número de amostras copiadas.
+	 */
+	public int drain(long[] dstT, double[] dstXyz, int max) {
+		long tl = tail.get();
+		if (headCache - tl < max) headCache = head.get();
+		int n = (int) Math.min(headCache - tl, max);
+		if (n <= 0) return 0;
+
+		int i = (int) tl & mask;
+		int k = Math.min(n, mask + 1 - i);
+		System.arraycopy(t, i, dstT, 0, k);
+		System.arraycopy(xyz, 3 * i, dstXyz, 0, 3 * k);
+		if (k < n) {
+			System.arraycopy(t, 0, dstT, k, n - k);
+			System.arraycopy(xyz, 0, dstXyz, 3 * k, 3 * (n - k));
+		}
+		tail.lazySet(tl + n);
+		return n;
+	}
+
+	/** @return true se não há amostras para ler. */
+	public boolean isEmpty() {
+		return head.get() == tail.get();
+	}
+
+	/** @return O número de amostras descartadas porque a fila estava cheia. */
+	public long getDropped() {
+		return dropped;
+	}
+}
@@ -0,0 +1,177 @@
+package com.example.acelerometro_m;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tira a gravidade das leituras do acelerômetro nos três eixos e gira o
+ * resultado para um sistema de referência nivelado.
+ *
+ * A gravidade vem do sensor TYPE_GRAVITY, quando existe (ver
+ * {@link #offerGravity(double, double, double)}), ou de um filtro passa-baixas
+ * de primeira ordem nas próprias leituras, com constante de tempo
+ * {@link #getTimeConstant()} e o intervalo real entre amostras.
+ *
+ * A aceleração sem gravidade é girada para um sistema em que Z aponta para
+ * cima (contra a gravidade) e X é a projeção horizontal do eixo X do celular
+ * (sem magnetômetro o rumo não é observável). A rotação R é feita com os
+ * ângulos de rolagem e arfagem da gravidade; os senos e cossenos são
+ * calculados só quando a direção da gravidade muda mais que
+ * {@link #REFRESH_TOLERANCE}, então cada amostra custa só R*(a-g).
+ *
+ * Só a thread que processa as amostras chama {@link #process(long, double, double, double)};
+ * uma outra thread (a do sensor de gravidade) pode chamar
+ * {@link #offerGravity(double, double, double)} ao mesmo tempo, sem travas.
+ */
+public class GravityCompensator {
+
+	/** Constante de tempo padrão do filtro passa-baixas, em segundos. */
+	public static final double DEFAULT_TIME_CONSTANT = 0.5;
+
+	/**
+	 * Mudança relativa da gravidade (|g - g_R| / |g|) a partir da qual a
+	 * rotação é recalculada.
+	 */
+	public static final double REFRESH_TOLERANCE = 1e-3;
+
+	private static final int INDEX_MASK = 3;
+	private static final int DIRTY = 4;
+
+	private final double timeConstant;
+
+	// Última gravidade do sensor: três buffers, como em StateSnapshot
+	private final double[][] offered = new double[3][3];
+	private final AtomicInteger middle = new AtomicInteger(1);
+	private int back = 0;  // só quem chama offerGravity usa
+	private int front = 2; // só quem chama process usa
+	private boolean fromSensor;
+
+	private long lastTimestamp;
+	private boolean started;
+	// Gravidade estimada, no sistema do celular
+	private double gx, gy, gz;
+	// Gravidade usada para calcular R
+	private double rx, ry, rz;
+	// Rotação do celular para o sistema nivelado
+	private double r00, r01, r02, r11, r12, r20, r21, r22;
+	// Aceleração sem gravidade, no sistema nivelado
+	private double x, y, z;
+
+	public GravityCompensator() {
+		this(DEFAULT_TIME_CONSTANT);
+	}
+
+	/**
+	 * @param timeConstant Constante de tempo do filtro passa-baixas, em
+	 *                     segundos. Acelerações mais lentas que isto são
+	 *                     confundidas com gravidade.
+	 */
+	public GravityCompensator(double timeConstant) {
+		if (!(timeConstant > 0)) throw new IllegalArgumentException("Constante de tempo inválida: " + timeConstant);
+		this.timeConstant = timeConstant;
+		reset();
+	}
+
+	/**
+	 * Esquece a gravidade estimada. A próxima amostra é tomada como a
+	 * gravidade inicial (o celular parado). A gravidade do sensor, se já foi
+	 * recebida, continua valendo.
+	 */
+	public void reset() {
+		started = false;
+		lastTimestamp = 0;
+		gx = gy = gz = 0;
+		x = y = z = 0;
+		r00 = r11 = r22 = 1;
+		r01 = r02 = r12 = r20 = r21 = 0;
+		rx = ry = rz = 0;
+	}
+
+	/**
+	 * Entrega uma leitura do sensor TYPE_GRAVITY. A partir da primeira, o
+	 * filtro passa-baixas deixa de ser usado. Só uma thread pode chamar.
+	 */
+	public void offerGravity(double gx, double gy, double gz) {
+		double[] b = offered[back];
+		b[0] = gx;
+		b[1] = gy;
+		b[2] = gz;
+		back = middle.getAndSet(back | DIRTY) & INDEX_MASK;
+	}
+
+	/**
+	 * Processa uma leitura do acelerômetro.
+	 *
+	 * @param timestamp Tempo da amostra em nanossegundos.
+	 */
+	public void process(long timestamp, double ax, double ay, double az) {
+		if ((middle.get() & DIRTY) != 0) {
+			front = middle.getAndSet(front) & INDEX_MASK;
+			double[] f = offered[front];
+			gx = f[0];
+			gy = f[1];
+			gz = f[2];
+			fromSensor = true;
+			started = true;
+		} else if (!fromSensor) {
+			if (!started) {
+				gx = ax;
+				gy = ay;
+				gz = az;
+				started = true;
+			} else if (timestamp > lastTimestamp) {
+				double dt = (timestamp - lastTimestamp) / 1000000000.0;
+				double alpha = dt / (timeConstant + dt);
+				gx += alpha * (ax - gx);
+				gy += alpha * (ay - gy);
+				gz += alpha * (az - gz);
+			}
+		}
+		lastTimestamp = timestamp;
+
+		double dx = gx - rx, dy = gy - ry, dz = gz - rz;
+		double g2 = gx * gx + gy * gy + gz * gz;
+		if (dx * dx + dy * dy + dz * dz > REFRESH_TOLERANCE * REFRESH_TOLERANCE * g2) refresh();
+
+		double lx = ax - gx, ly = ay - gy, lz = az - gz;
+		x = r00 * lx + r01 * ly + r02 * lz;
+		y = r11 * ly + r12 * lz;
+		z = r20 * lx + r21 * ly + r22 * lz;
+	}
+
+	// Recalcula R = Ry(arfagem) * Rx(rolagem), que leva a gravidade para +Z.
+	private void refresh() {
+		rx = gx;
+		ry = gy;
+		rz = gz;
+		double roll = Math.atan2(gy, gz);
+		double pitch = Math.atan2(-gx, Math.sqrt(gy * gy + gz * gz));
+		double cr = Math.cos(roll), sr = Math.sin(roll);
+		double cp = Math.cos(pitch), sp = Math.sin(pitch);
+		r00 = cp;  r01 = sp * sr;  r02 = sp * cr;
+		r11 = cr;  r12 = -sr;
+		r20 = -sp; r21 = cp * sr;  r22 = cp * cr;
+	}
+
+	/** @return Aceleração sem gravidade no eixo X nivelado. */
+	public double getX() { return x; }
+
+	/** @return Aceleração sem gravidade no eixo Y nivelado. */
+	public double getY() { return y; }
+
+	/** @return Aceleração sem gravidade no eixo Z nivelado (para cima). */
+	public double getZ() { return z; }
+
+	/** @return A gravidade estimada no eixo X do celular. */
+	public double getGravityX() { return gx; }
+
+	/** @return A gravidade estimada no eixo Y do celular. */
+	public double getGravityY() { return gy; }
+
+	/** @return A gravidade estimada no eixo Z do celular. */
+	public double getGravityZ() { return gz; }
+
+	/** @return true se a gravidade vem do sensor TYPE_GRAVITY. */
+	public boolean isFromSensor() { return fromSensor; }
+
+	public double getTimeConstant() { return timeConstant; }
+}
@@ -0,0 +1,251 @@
+package com.example.acelerometro_m;
+
+/**
+ * Integral no tempo de um sinal amostrado, usando os tempos reais das
+ * amostras (SensorEvent.timestamp, em nanossegundos).
+ *
+ * Cada chamada a {@link #update(long, double)} soma à integral a área do
+ * último intervalo [t(k-1), t(k)], calculada com o método escolhido:
+ * <ul>
+ * <li>{@link #EULER}: retângulo com o valor atual, f(k)*dt;</li>
+ * <li>{@link #TRAPEZOID}: trapézio entre as duas últimas amostras;</li>
+ * <li>{@link #SIMPSON}: integral da parábola que passa pelas três últimas
+ *     amostras (com intervalos diferentes);</li>
+ * <li>{@link #RK4}: passo de Runge-Kutta de quarta ordem para y' = f(t),
+ *     com o valor no meio do intervalo tirado da cúbica que passa pelas
+ *     quatro últimas amostras.</li>
+ * </ul>
+ * Os métodos de ordem maior erram menos com o mesmo número de amostras, então
+ * permitem usar uma taxa menor do sensor com a mesma deriva. Enquanto não há
+ * amostras suficientes, usam o método de ordem menor que couber.
+ *
+ * Amostras com o tempo igual ou anterior ao da última são ignoradas
+ * (eventos duplicados; ver {@link #getDuplicates()}). Um intervalo muito
+ * maior que o normal (eventos perdidos; ver {@link #getGaps()}) é integrado
+ * com o trapézio e a história é descartada, para não passar um polinômio
+ * pela falha. Depois de {@link #GAP_RESYNC} falhas seguidas a taxa é tida
+ * como mudada de vez (por exemplo, o sensor foi registrado de novo com outro
+ * período) e o intervalo atual passa a ser o normal. Nenhum objeto é criado
+ * por amostra.
+ *
+ * <pre>
+ * Integrator v = Integrator.create(Integrator.TRAPEZOID);
+ * Integrator s = Integrator.create(Integrator.TRAPEZOID);
+ * double vel = v.update(event.timestamp, a);
+ * double pos = s.update(event.timestamp, vel);
+ * </pre>
+ */
+public abstract class Integrator {
+
+	public static final int EULER = 0;
+	public static final int TRAPEZOID = 1;
+	public static final int SIMPSON = 2;
+	public static final int RK4 = 3;
+
+	/**
+	 * Um intervalo maior que este número de vezes o intervalo normal é
+	 * considerado uma falha (ver {@link #setMaxGap(long)}).
+	 */
+	public static final double GAP_FACTOR = 3;
+
+	/**
+	 * Número de falhas seguidas depois do qual o intervalo normal é estimado
+	 * de novo a partir do intervalo atual. Não vale com {@link #setMaxGap(long)}.
+	 */
+	public static final int GAP_RESYNC = 3;
+
+	// História: f0 é a amostra atual, f1 a anterior...; h1 = t0 - t1,
+	// h2 = t1 - t2 e h3 = t2 - t3, em segundos.
+	protected double f0, f1, f2, f3;
+	protected double h1, h2, h3;
+	// Número de amostras válidas na história (até 4).
+	protected int points;
+
+	private long lastTimestamp;
+	private double value;
+	private double period; // intervalo normal estimado, em segundos
+	private long maxGap;   // 0: automático
+	private long duplicates;
+	private long gaps;
+	private int gapRun;    // falhas seguidas
+
+	protected Integrator() {
+		reset();
+	}
+
+	/**
+	 * @param method {@link #EULER}, {@link #TRAPEZOID}, {@link #SIMPSON} ou {@link #RK4}.
+	 */
+	public static Integrator create(int method) {
+		switch (method) {
+		case EULER: return new Euler();
+		case TRAPEZOID: return new Trapezoid();
+		case SIMPSON: return new Simpson();
+		case RK4: return new Rk4();
+		default: throw new IllegalArgumentException("Método desconhecido: " + method);
+		}
+	}
+
+	/**
+	 * @return O método, como em {@link #create(int)}.
+	 */
+	public abstract int getMethod();
+
+	/**
+	 * Área do último intervalo, [t1, t0] de comprimento h1, com a história
+	 * de {@link #points} amostras (pelo menos 2).
+	 */
+	protected abstract double area();
+
+	/**
+	 * Volta a integral a zero e esquece a história.
+	 */
+	public void reset() {
+		value = 0;
+		points = 0;
+		lastTimestamp = 0;
+		period = 0;
+		duplicates = 0;
+		gaps = 0;
+		gapRun = 0;
+	}
+
+	/**
+	 * Troca o maior intervalo aceito entre duas amostras antes de considerar
+	 * que houve uma falha. Com 0 (o padrão) o limite é {@link #GAP_FACTOR}
+	 * vezes o intervalo normal, estimado das próprias amostras.
+	 *
+	 * @param nanos Limite em nanossegundos, ou 0.
+	 */
+	public void setMaxGap(long nanos) {
+		maxGap = nanos;
+	}
+
+	/**
+	 * Soma à integral a área desde a amostra anterior.
+	 *
+	 * @param timestamp Tempo da amostra, em nanossegundos.
+	 * @param f Valor do sinal nesse tempo.
+	 * @return A integral atualizada.
+	 */
+	public double update(long timestamp, double f) {
+		if (points == 0) {
+			lastTimestamp = timestamp;
+			f0 = f;
+			points = 1;
+			return value;
+		}
+
+		long dtn = timestamp - lastTimestamp;
+		if (dtn <= 0) {
+			duplicates++;
+			return value;
+		}
+		double dt = dtn / 1000000000.0;
+		lastTimestamp = timestamp;
+
+		boolean gap;
+		if (maxGap > 0) gap = dtn > maxGap;
+		else gap = period > 0 && dt > GAP_FACTOR * period;
+
+		if (gap && maxGap == 0 && ++gapRun >= GAP_RESYNC) {
+			// A taxa mudou de vez: o intervalo atual é o novo normal.
+			gap = false;
+			period = dt;
+		}
+
+		if (gap) {
+			gaps++;
+			value += 0.5 * (f0 + f) * dt;
+			f0 = f;
+			points = 1;
+			return value;
+		}
+
+		gapRun = 0;
+		// Média móvel do intervalo normal (peso 1/8 para o novo).
+		period = (period > 0) ? period + 0.125 * (dt - period) : dt;
+
+		f3 = f2; f2 = f1; f1 = f0; f0 = f;
+		h3 = h2; h2 = h1; h1 = dt;
+		if (points < 4) points++;
+
+		value += area();
+		return value;
+	}
+
+	/** @return A integral desde o último {@link #reset()}. */
+	public double getValue() { return value; }
+
+	/**
+	 * Troca o valor da integral sem mexer na história das amostras (por
+	 * exemplo, para zerar a velocidade quando o celular está parado).
+	 */
+	public void setValue(double value) { this.value = value; }
+
+	/** @return O número de amostras ignoradas por tempo repetido ou anterior. */
+	public long getDuplicates() { return duplicates; }
+
+	/** @return O número de intervalos tratados como falha. */
+	public long getGaps() { return gaps; }
+
+	// Área do trapézio do último intervalo.
+	protected final double trapezoid() {
+		return 0.5 * (f0 + f1) * h1;
+	}
+
+	// Integral em [t1, t0] da parábola por (t2, f2), (t1, f1), (t0, f0).
+	protected final double parabola() {
+		double h = h1, g = h2;
+		double d0 = f0 - f1, d2 = f2 - f1;
+		double c = (g * d0 + h * d2) / (h * g * (h + g));
+		double b = (d0 - c * h * h) / h;
+		return h * (f1 + h * (0.5 * b + h * c / 3));
+	}
+
+	static final class Euler extends Integrator {
+		public int getMethod() { return EULER; }
+
+		protected double area() {
+			return f0 * h1;
+		}
+	}
+
+	static final class Trapezoid extends Integrator {
+		public int getMethod() { return TRAPEZOID; }
+
+		protected double area() {
+			return trapezoid();
+		}
+	}
+
+	static final class Simpson extends Integrator {
+		public int getMethod() { return SIMPSON; }
+
+		protected double area() {
+			return points < 3 ? trapezoid() : parabola();
+		}
+	}
+
+	static final class Rk4 extends Integrator {
+		public int getMethod() { return RK4; }
+
+		protected double area() {
+			if (points < 3) return trapezoid();
+			if (points < 4) return parabola();
+
+			// Nós em relação a t1: x0 = h1, x1 = 0, x2 = -h2, x3 = -h2-h3;
+			// valor no meio, xm = h1/2, pela interpolação de Lagrange.
+			double x0 = h1, x2 = -h2, x3 = -h2 - h3;
+			double m = 0.5 * h1;
+			double a0 = m - x0, a1 = m, a2 = m - x2, a3 = m - x3;
+			double fm = f0 * (a1 * a2 * a3) / (x0 * (x0 - x2) * (x0 - x3))
+					+ f1 * (a0 * a2 * a3) / ((-x0) * (-x2) * (-x3))
+					+ f2 * (a0 * a1 * a3) / ((x2 - x0) * x2 * (x2 - x3))
+					+ f3 * (a0 * a1 * a2) / ((x3 - x0) * x3 * (x3 - x2));
+
+			// y' = f(t): k1 = f1, k2 = k3 = fm, k4 = f0.
+			return h1 * (f1 + 4 * fm + f0) / 6;
+		}
+	}
+}
@@ -0,0 +1,206 @@
+package com.example.acelerometro_m;
+
+import net.sourceforge.pdsplibj.pdsdf.PdsKalman1DTool;
+import net.sourceforge.pdsplibj.pdsra.PdsVector;
+
+/**
+ * Ajuste contínuo dos parâmetros A, Q e R dos filtros Kalman de um
+ * {@link AccelPipeline}, a partir das próprias amostras do sensor.
+ *
+ * Depois de {@link #calibrate()}, as primeiras amostras com o celular parado
+ * (segundo um {@link StillnessDetector}, ver {@link #getRestDetector()}) são
+ * a sinal em repouso de um {@link PdsKalman1DTool} por eixo; se o celular se
+ * mexe antes de juntar o repouso, ele é descartado e começa de novo. As
+ * amostras seguintes são a sinal em atividade. A cada {@code period} amostras os parâmetros são
+ * calculados de novo e trocados nos filtros em execução, sem reiniciar o
+ * filtro (ver PdsKalman1D.SetParameters); se o pipeline é reiniciado (ver
+ * {@link AccelPipeline#getResets()}), os últimos parâmetros são trocados de
+ * novo nos filtros novos. Os dados ficam em memórias FIFO de
+ * tamanho fixo, então a memória não cresce e não há alocação por amostra.
+ *
+ * <pre>
+ * KalmanTuner ajuste = new KalmanTuner(KalmanTuner.DEFAULT_WINDOW, KalmanTuner.DEFAULT_PERIOD);
+ * ajuste.calibrate();
+ * ...
+ * pipeline.process(t, x, y, z);
+ * ajuste.update(pipeline);
+ * </pre>
+ */
+public class KalmanTuner {
+
+	/** Número de amostras em repouso, e tamanho da janela em atividade. */
+	public static final int DEFAULT_WINDOW = 800;
+
+	/** Número de amostras entre dois ajustes dos parâmetros. */
+	public static final int DEFAULT_PERIOD = 200;
+
+	/**
+	 * Limiar padrão da soma das variâncias dos três eixos para uma amostra
+	 * contar como repouso, em (m/s^2)^2. É maior que o do ZUPT porque as
+	 * amostras não estão filtradas.
+	 */
+	public static final double DEFAULT_REST_THRESHOLD = 0.05;
+
+	private final int window;
+	private final int period;
+
+	private PdsKalman1DTool[] tools; // null até calibrate()
+	private int restLeft;
+	private int sinceUpdate;
+	private long active;
+
+	private long updates;
+	private long rejected;
+	private long restRestarts;
+
+	// Só deixa entrar no repouso as amostras com o celular parado
+	private final StillnessDetector rest = new StillnessDetector(StillnessDetector.DEFAULT_WINDOW, DEFAULT_REST_THRESHOLD);
+	// AccelPipeline.getResets() visto por último
+	private long resets = -1;
+
+	// A, H, Q, R de cada eixo usados por último
+	private final double[] params = new double[12];
+
+	/**
+	 * @param window Número de amostras em repouso e tamanho da janela das
+	 *               amostras em atividade.
+	 * @param period Número de amostras em atividade entre dois ajustes.
+	 */
+	public KalmanTuner(int window, int period) {
+		this.window = window;
+		this.period = period;
+		for (int i = 0; i < 3; i++) {
+			params[4 * i] = AccelPipeline.KALMAN_A;
+			params[4 * i + 1] = AccelPipeline.KALMAN_H;
+			params[4 * i + 2] = AccelPipeline.KALMAN_Q;
+			params[4 * i + 3] = AccelPipeline.KALMAN_R;
+		}
+	}
+
+	/**
+	 * Começa uma calibração nova: as próximas {@code window} amostras com o
+	 * celular parado são tomadas como repouso. Os parâmetros atuais dos
+	 * filtros não mudam até o primeiro ajuste.
+	 */
+	public void calibrate() {
+		newTools();
+		rest.restart();
+		sinceUpdate = 0;
+		active = 0;
+	}
+
+	private void newTools() {
+		tools = new PdsKalman1DTool[3];
+		for (int i = 0; i < 3; i++) tools[i] = new PdsKalman1DTool(AccelPipeline.KALMAN_H, window);
+		restLeft = window;
+	}
+
+	/** @return true enquanto são recebidas as amostras em repouso. */
+	public boolean isCalibrating() {
+		return restLeft > 0;
+	}
+
+	/**
+	 * Recebe a última amostra processada pelo pipeline e, quando toca, troca
+	 * os parâmetros dos filtros. Deve ser chamado na mesma thread que
+	 * {@link AccelPipeline#process(long, double, double, double)}.
+	 */
+	public void update(AccelPipeline pipeline) {
+		long r = pipeline.getResets();
+		if (r != resets) {
+			// Filtros novos, com os parâmetros padrão: troca os ajustados de novo.
+			resets = r;
+			for (int i = 0; i < 3; i++) {
+				pipeline.setKalmanParameters(i, params[4 * i], params[4 * i + 1], params[4 * i + 2], params[4 * i + 3]);
+			}
+		}
+		if (tools == null) return;
+
+		double x = pipeline.getAccX();
+		double y = pipeline.getAccY();
+		double z = pipeline.getAccZ();
+
+		if (restLeft > 0) {
+			rest.update(x, y, z);
+			if (!rest.isQuiet()) {
+				// Mexeu (ou a janela do detector ainda não encheu): o que foi
+				// juntado pode ter movimento, então o repouso começa de novo.
+				if (restLeft < window) {
+					newTools();
+					restRestarts++;
+				}
+				return;
+			}
+			tools[0].AddValueR(x);
+			tools[1].AddValueR(y);
+			tools[2].AddValueR(z);
+			restLeft--;
+			return;
+		}
+
+		tools[0].AddValueA(x);
+		tools[1].AddValueA(y);
+		tools[2].AddValueA(z);
+		active++;
+		sinceUpdate++;
+
+		if (sinceUpdate >= period) {
+			sinceUpdate = 0;
+			for (int i = 0; i < 3; i++) tune(pipeline, i);
+		}
+	}
+
+	private void tune(AccelPipeline pipeline, int axis) {
+		PdsVector d = tools[axis].GetParameters();
+		double h = d.GetValue(0);
+		double r = d.GetValue(1);
+		double a = d.GetValue(2);
+		double q = d.GetValue(3);
+
+		// Sem atividade suficiente (variância em atividade <= R) a estimação
+		// não tem sentido; mantém os parâmetros anteriores.
+		if (!(r > 0) || !(q > 0) || !(Math.abs(a) <= 1) || Double.isInfinite(r) || Double.isInfinite(q)) {
+			rejected++;
+			return;
+		}
+
+		pipeline.setKalmanParameters(axis, a, h, q, r);
+		params[4 * axis] = a;
+		params[4 * axis + 1] = h;
+		params[4 * axis + 2] = q;
+		params[4 * axis + 3] = r;
+		updates++;
+	}
+
+	/** @return O número de amostras em atividade recebidas desde {@link #calibrate()}. */
+	public long getActiveSamples() {
+		return active;
+	}
+
+	/** @return O número de ajustes aceitos (um por eixo). */
+	public long getUpdates() {
+		return updates;
+	}
+
+	/** @return O número de vezes que o repouso recomeçou porque o celular se mexeu. */
+	public long getRestRestarts() {
+		return restRestarts;
+	}
+
+	/** @return O detector que escolhe as amostras em repouso, para mudar o limiar. */
+	public StillnessDetector getRestDetector() {
+		return rest;
+	}
+
+	/** @return O número de ajustes descartados por parâmetros inválidos. */
+	public long getRejected() {
+		return rejected;
+	}
+
+	/**
+	 * Copia os últimos parâmetros usados no eixo: A, H, Q e R.
+	 */
+	public void getParameters(int axis, double[] dst, int off) {
+		System.arraycopy(params, 4 * axis, dst, off, 4);
+	}
+}
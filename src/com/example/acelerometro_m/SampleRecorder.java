@@ -0,0 +1,226 @@
+package com.example.acelerometro_m;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Gravador de amostras de 3 eixos com tempo, guardadas em vetores primitivos.
+ *
+ * As amostras são guardadas em blocos ({@link Chunk}) com um long[] de tempos
+ * e um double[] com x,y,z intercalados, sem criar um objeto por valor.
+ * Há dois modos:
+ * <ul>
+ * <li>{@link #growable(int)}: cresce de bloco em bloco enquanto a gravação
+ *     durar; os blocos já lidos com {@link #drain(long[], double[], int)} são
+ *     reaproveitados.</li>
+ * <li>{@link #ring(int)}: guarda só as últimas amostras; quando está cheio
+ *     sobrescreve as mais antigas (ver {@link #getDropped()}).</li>
+ * </ul>
+ * Pode ser usado por duas threads ao mesmo tempo: uma que só chama
+ * {@link #append(long, double, double, double)} (o sensor) e outra que só
+ * chama {@link #drain(long[], double[], int)} (quem salva). No modo circular
+ * o escritor pode dar a volta durante uma leitura: as amostras sobrescritas
+ * durante a cópia são descartadas e contadas em {@link #getDropped()}, nunca
+ * devolvidas pela metade.
+ */
+public class SampleRecorder {
+
+	/** Número de amostras por bloco usado por padrão. */
+	public static final int DEFAULT_CHUNK_FRAMES = 4096;
+
+	static final class Chunk {
+		final long[] t;
+		final double[] xyz;
+		volatile Chunk next;
+
+		Chunk(int frames) {
+			t = new long[frames];
+			xyz = new double[3 * frames];
+		}
+	}
+
+	private final int chunkFrames;
+	private final Chunk[] ringChunks; // null no modo que cresce
+	private final long capacity;      // Long.MAX_VALUE no modo que cresce
+
+	// Bloco vazio devolvido pelo leitor para o escritor reaproveitar.
+	private final AtomicReference<Chunk> spare = new AtomicReference<Chunk>();
+
+	// Só o escritor usa
+	private Chunk writeChunk;
+	private int writeIndex;
+
+	// Só o leitor usa
+	private Chunk readChunk;
+	private int readIndex;
+	private long dropped;
+	// Escrito só pelo leitor; volatile para que a cópia termine antes de
+	// reler written (ver drain)
+	private volatile long read;
+
+	// Número de amostras já escritas
+	private volatile long written;
+
+	private SampleRecorder(int chunkFrames, int chunks) {
+		this.chunkFrames = chunkFrames;
+		if (chunks > 0) {
+			ringChunks = new Chunk[chunks];
+			for (int i = 0; i < chunks; i++) ringChunks[i] = new Chunk(chunkFrames);
+			for (int i = 0; i < chunks; i++) ringChunks[i].next = ringChunks[(i + 1) % chunks];
+			capacity = (long) chunks * chunkFrames;
+			writeChunk = ringChunks[0];
+		} else {
+			ringChunks = null;
+			capacity = Long.MAX_VALUE;
+			writeChunk = new Chunk(chunkFrames);
+		}
+		readChunk = writeChunk;
+	}
+
+	/**
+	 * Cria um gravador sem limite de tamanho.
+	 *
+	 * @param chunkFrames Número de amostras por bloco.
+	 */
+	public static SampleRecorder growable(int chunkFrames) {
+		return new SampleRecorder(chunkFrames, 0);
+	}
+
+	/**
+	 * Cria um gravador circular que guarda só as últimas amostras.
+	 *
+	 * @param capacityFrames Número mínimo de amostras guardadas.
+	 */
+	public static SampleRecorder ring(int capacityFrames) {
+		int chunkFrames = Math.max(1, Math.min(DEFAULT_CHUNK_FRAMES, capacityFrames));
+		// Um bloco a mais, que é o que pode estar sendo escrito durante a leitura.
+		int chunks = (capacityFrames + chunkFrames - 1) / chunkFrames + 1;
+		return new SampleRecorder(chunkFrames, chunks);
+	}
+
+	/**
+	 * Grava uma amostra. Só pode ser chamado pela thread do sensor.
+	 */
+	public void append(long t, double x, double y, double z) {
+		if (writeIndex == chunkFrames) {
+			Chunk c;
+			if (ringChunks != null) {
+				c = writeChunk.next;
+			} else {
+				c = spare.getAndSet(null);
+				if (c == null) c = new Chunk(chunkFrames);
+				c.next = null;
+				writeChunk.next = c;
+			}
+			writeChunk = c;
+			writeIndex = 0;
+		}
+		Chunk c = writeChunk;
+		int i = writeIndex;
+		c.t[i] = t;
+		c.xyz[3 * i] = x;
+		c.xyz[3 * i + 1] = y;
+		c.xyz[3 * i + 2] = z;
+		writeIndex = i + 1;
+		written = written + 1;
+	}
+
+	/**
+	 * @return O número de amostras que ainda não foram lidas.
+	 */
+	public long available() {
+		return Math.min(written - read, capacity);
+	}
+
+	/**
+	 * @return O número de amostras perdidas por sobrescrita no modo circular.
+	 */
+	public long getDropped() {
+		return dropped;
+	}
+
+	/**
+	 * Copia até max amostras ainda não lidas, das mais antigas para as mais
+	 * novas. Só pode ser chamado pela thread que lê.
+	 *
+	 * @param t Recebe os tempos (pode ser null).
+	 * @param xyz Recebe x,y,z intercalados, 3 valores por amostra.
+	 * @param max Número máximo de amostras a copiar.
+	 * @return O número de amostras copiadas.
+	 */
+	public int drain(long[] t, double[] xyz, int max) {
+		long w = written;
+
+		if (ringChunks != null && w - read > capacity - chunkFrames) {
+			// O escritor deu a volta: pula para o bloco mais antigo que ainda é válido,
+			// deixando um bloco de folga para o que está sendo escrito agora.
+			long from = Math.max(w - capacity + chunkFrames, 0);
+			from = from - (from % chunkFrames);
+			if (from > read) {
+				dropped += from - read;
+				read = from;
+				readChunk = ringChunks[(int) ((read / chunkFrames) % ringChunks.length)];
+				readIndex = 0;
+			}
+		}
+
+		long from = read;
+		int n = (int) Math.min(w - from, max);
+		int done = 0;
+		while (done < n) {
+			if (readIndex == chunkFrames) {
+				Chunk next = readChunk.next;
+				if (ringChunks == null) spare.compareAndSet(null, readChunk);
+				readChunk = next;
+				readIndex = 0;
+			}
+			int k = Math.min(chunkFrames - readIndex, n - done);
+			if (t != null) System.arraycopy(readChunk.t, readIndex, t, done, k);
+			System.arraycopy(readChunk.xyz, 3 * readIndex, xyz, 3 * done, 3 * k);
+			readIndex += k;
+			done += k;
+		}
+		read = from + done;
+
+		if (ringChunks != null && done > 0) {
+			// Como num seqlock: a amostra i está no mesmo lugar que i + capacity.
+			// Se durante a cópia o escritor chegou em written, as amostras até
+			// written - capacity podem ter sido sobrescritas.
+			long lost = written - capacity + 1 - from;
+			if (lost > 0) {
+				int k = (int) Math.min(lost, done);
+				dropped += k;
+				done -= k;
+				if (t != null) System.arraycopy(t, k, t, 0, done);
+				System.arraycopy(xyz, 3 * k, xyz, 0, 3 * done);
+			}
+		}
+		return done;
+	}
+
+	/**
+	 * Descarta as amostras que ainda não foram lidas. Só pode ser chamado pela
+	 * thread que lê.
+	 */
+	public void skipAll() {
+		long w = written;
+		long n = w - read;
+		if (ringChunks != null) {
+			read = w;
+			readChunk = ringChunks[(int) ((read / chunkFrames) % ringChunks.length)];
+			readIndex = (int) (read % chunkFrames);
+			return;
+		}
+		while (n > 0) {
+			if (readIndex == chunkFrames) {
+				Chunk next = readChunk.next;
+				spare.compareAndSet(null, readChunk);
+				readChunk = next;
+				readIndex = 0;
+			}
+			int k = (int) Math.min(chunkFrames - readIndex, n);
+			readIndex += k;
+			n -= k;
+		}
+		read = w;
+	}
+}
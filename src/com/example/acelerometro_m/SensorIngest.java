@@ -0,0 +1,150 @@
+package com.example.acelerometro_m;
+
+import android.hardware.Sensor;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+
+/**
+ * Registro de um sensor com período de amostragem e agrupamento (batching)
+ * configuráveis, com os eventos entregues numa thread própria.
+ *
+ * O período é pedido em microssegundos, em vez das constantes
+ * SENSOR_DELAY_* (SENSOR_DELAY_NORMAL dá uns 5 Hz). Com uma latência máxima
+ * maior que zero e um sensor com FIFO em hardware, o sensor guarda as
+ * amostras e as entrega em grupos: o processador não acorda a cada amostra.
+ * Os eventos chegam num {@link HandlerThread}, não na thread principal, então
+ * uma taxa alta não disputa a thread com o desenho da tela; o listener deve
+ * publicar para a tela só por estruturas seguras entre threads (ver
+ * {@link StateSnapshot}).
+ *
+ * <pre>
+ * SensorIngest s = new SensorIngest(sm, sensor, listener);
+ * s.setSamplingPeriodUs(10000);      // 100 Hz
+ * s.setMaxReportLatencyUs(100000);   // até 100 ms de amostras por grupo
+ * s.start();  // onResume
+ * s.stop();   // onPause
+ * </pre>
+ */
+public class SensorIngest {
+
+	/** Período de amostragem padrão, em microssegundos (100 Hz). */
+	public static final int DEFAULT_PERIOD_US = 10000;
+
+	/** Latência máxima padrão de entrega dos grupos, em microssegundos. */
+	public static final int DEFAULT_MAX_LATENCY_US = 100000;
+
+	private final SensorManager manager;
+	private final Sensor sensor;
+	private final SensorEventListener listener;
+
+	private int periodUs = DEFAULT_PERIOD_US;
+	private int maxLatencyUs = DEFAULT_MAX_LATENCY_US;
+
+	private HandlerThread thread;
+	private Handler handler;
+	private boolean registered;
+
+	public SensorIngest(SensorManager manager, Sensor sensor, SensorEventListener listener) {
+		this.manager = manager;
+		this.sensor = sensor;
+		this.listener = listener;
+	}
+
+	/**
+	 * Troca o período de amostragem pedido. Vale no próximo {@link #start()}.
+	 *
+	 * @param us Período em microssegundos. O sensor pode entregar mais rápido
+	 *           ou, abaixo de {@link #getMinPeriodUs()}, mais devagar.
+	 */
+	public void setSamplingPeriodUs(int us) {
+		if (us <= 0) throw new IllegalArgumentException("Período inválido: " + us);
+		periodUs = us;
+	}
+
+	public int getSamplingPeriodUs() { return periodUs; }
+
+	/**
+	 * Troca a latência máxima de entrega. Com 0 cada amostra é entregue
+	 * assim que medida. Vale no próximo {@link #start()}.
+	 *
+	 * @param us Latência em microssegundos.
+	 */
+	public void setMaxReportLatencyUs(int us) {
+		if (us < 0) throw new IllegalArgumentException("Latência inválida: " + us);
+		maxLatencyUs = us;
+	}
+
+	public int getMaxReportLatencyUs() { return maxLatencyUs; }
+
+	/** @return O menor período que o sensor aceita, em microssegundos (0 se não informado). */
+	public int getMinPeriodUs() {
+		return sensor.getMinDelay();
+	}
+
+	/**
+	 * @return true se o sensor tem FIFO em hardware e foi pedida uma
+	 *         latência maior que zero numa versão do Android que aceita.
+	 */
+	public boolean isBatching() {
+		return maxLatencyUs > 0
+				&& Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT
+				&& sensor.getFifoReservedEventCount() > 0;
+	}
+
+	/**
+	 * Começa a thread dos eventos e registra o listener.
+	 *
+	 * @return false se o sensor não pôde ser registrado.
+	 */
+	public boolean start() {
+		if (registered) return true;
+
+		thread = new HandlerThread("SensorIngest");
+		thread.start();
+		handler = new Handler(thread.getLooper());
+
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+			registered = manager.registerListener(listener, sensor, periodUs, maxLatencyUs, handler);
+		} else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.GINGERBREAD) {
+			registered = manager.registerListener(listener, sensor, periodUs, handler);
+		} else {
+			registered = manager.registerListener(listener, sensor, legacyDelay(periodUs), handler);
+		}
+		if (!registered) quitThread();
+		return registered;
+	}
+
+	/**
+	 * Tira o registro do listener neste sensor e termina a thread dos
+	 * eventos. As amostras que ainda estavam no FIFO do sensor são
+	 * descartadas. O mesmo listener registrado em outros sensores (por outro
+	 * SensorIngest) continua registrado.
+	 */
+	public void stop() {
+		if (!registered) return;
+		manager.unregisterListener(listener, sensor);
+		registered = false;
+		quitThread();
+	}
+
+	public boolean isStarted() { return registered; }
+
+	// Antes do Android 2.3 só valem as constantes SENSOR_DELAY_*: a mais
+	// lenta que ainda é pelo menos tão rápida quanto o período pedido.
+	private static int legacyDelay(int us) {
+		if (us < 20000) return SensorManager.SENSOR_DELAY_FASTEST;
+		if (us < 66000) return SensorManager.SENSOR_DELAY_GAME;
+		if (us < 200000) return SensorManager.SENSOR_DELAY_UI;
+		return SensorManager.SENSOR_DELAY_NORMAL;
+	}
+
+	private void quitThread() {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) thread.quitSafely();
+		else thread.quit();
+		thread = null;
+		handler = null;
+	}
+}
@@ -0,0 +1,148 @@
+package com.example.acelerometro_m;
+
+import java.util.concurrent.locks.LockSupport;
+
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+
+/**
+ * Separa a recepção dos eventos do sensor do processamento.
+ *
+ * {@link #onSensorChanged(SensorEvent)} só copia a amostra para uma
+ * {@link FrameRing} e, se preciso, acorda a thread de processamento, que
+ * entrega as amostras em blocos ao {@link Consumer}. Nenhum dos dois lados
+ * usa travas nem aloca memória por amostra, então um atraso do processamento
+ * ou da tela não faz o sensor perder amostras enquanto houver espaço na fila
+ * (ver {@link #getDropped()}). O resultado deve ser publicado para a tela
+ * por um {@link StateSnapshot}. Eventos do sensor TYPE_GRAVITY, se o mesmo
+ * objeto também é registrado para ele (numa outra thread), vão direto para o
+ * {@link GravityCompensator} de {@link #setGravityCompensator(GravityCompensator)}.
+ *
+ * <pre>
+ * SensorWorker w = new SensorWorker(SensorWorker.DEFAULT_CAPACITY, consumer);
+ * w.start();
+ * sm.registerListener(w, sensor, ...);
+ * ...
+ * sm.unregisterListener(w, sensor);
+ * w.stop();
+ * </pre>
+ */
+public class SensorWorker implements SensorEventListener, Runnable {
+
+	/** Recebe as amostras na thread de processamento. */
+	public interface Consumer {
+		/**
+		 * @param t Tempos das amostras em nanossegundos.
+		 * @param xyz Leituras x,y,z intercaladas.
+		 * @param n Número de amostras; os vetores são reaproveitados depois.
+		 */
+		void onFrames(long[] t, double[] xyz, int n);
+	}
+
+	/** Tamanho padrão da fila: uns 40 s a 100 Hz. */
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	/** Número máximo de amostras entregues de uma vez ao {@link Consumer}. */
+	public static final int BATCH_FRAMES = 256;
+
+	// Tempo máximo que a thread de processamento dorme sem ser acordada.
+	private static final long PARK_NS = 50000000L;
+
+	private final FrameRing ring;
+	private final Consumer consumer;
+	private volatile GravityCompensator gravity;
+	private final long[] t = new long[BATCH_FRAMES];
+	private final double[] xyz = new double[3 * BATCH_FRAMES];
+
+	private volatile Thread thread;
+	private volatile boolean running;
+	private volatile boolean waiting;
+
+	public SensorWorker(int capacity, Consumer consumer) {
+		this.ring = new FrameRing(capacity);
+		this.consumer = consumer;
+	}
+
+	/**
+	 * Escolhe quem recebe as leituras do sensor TYPE_GRAVITY.
+	 */
+	public void setGravityCompensator(GravityCompensator compensator) {
+		gravity = compensator;
+	}
+
+	/**
+	 * Começa a thread de processamento.
+	 */
+	public void start() {
+		if (thread != null) return;
+		running = true;
+		thread = new Thread(this, "SensorWorker");
+		thread.start();
+	}
+
+	/**
+	 * Processa as amostras que ainda estão na fila e termina a thread. Deve
+	 * ser chamado depois de tirar o registro do sensor; espera a thread acabar.
+	 */
+	public void stop() {
+		Thread th = thread;
+		if (th == null) return;
+		running = false;
+		LockSupport.unpark(th);
+		boolean interrupted = false;
+		while (th.isAlive()) {
+			try {
+				th.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		thread = null;
+		if (interrupted) Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Chamado na thread do sensor: só copia a amostra para a fila.
+	 */
+	@Override
+	public void onSensorChanged(SensorEvent event) {
+		float[] v = event.values;
+		GravityCompensator g = gravity;
+		if (g != null && event.sensor != null && event.sensor.getType() == Sensor.TYPE_GRAVITY) {
+			g.offerGravity(v[0], v[1], v[2]);
+			return;
+		}
+		ring.offer(event.timestamp, v[0], v[1], v[2]);
+		if (waiting) LockSupport.unpark(thread);
+	}
+
+	@Override
+	public void onAccuracyChanged(Sensor sensor, int accuracy) {
+	}
+
+	/**
+	 * Laço da thread de processamento.
+	 */
+	public void run() {
+		while (true) {
+			boolean last = !running;
+			int n;
+			while ((n = ring.drain(t, xyz, BATCH_FRAMES)) > 0) {
+				consumer.onFrames(t, xyz, n);
+			}
+			if (last) break;
+
+			waiting = true;
+			// Confere de novo depois de avisar: uma amostra escrita antes de
+			// waiting ficar visível não acordaria a thread.
+			if (ring.isEmpty() && running) LockSupport.parkNanos(this, PARK_NS);
+			waiting = false;
+		}
+	}
+
+	/** @return O número de amostras perdidas porque a fila estava cheia. */
+	public long getDropped() {
+		return ring.getDropped();
+	}
+}
@@ -0,0 +1,47 @@
+package com.example.acelerometro_m;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Último estado publicado pelo {@link AccelPipeline}, para ser lido por outra
+ * parte do programa (por exemplo a tela) sem travas e sem alocar memória.
+ *
+ * Usa três buffers: o escritor sempre escreve no buffer de trás e troca ele
+ * com o do meio; o leitor troca o buffer da frente com o do meio só quando
+ * há um estado novo. Assim o leitor nunca vê um estado pela metade e o
+ * escritor nunca espera pelo leitor. Só pode haver um escritor e um leitor.
+ */
+public class StateSnapshot {
+
+	private static final int INDEX_MASK = 3;
+	private static final int DIRTY = 4;
+
+	private final double[][] buffers;
+	private final AtomicInteger middle = new AtomicInteger(1);
+	private int back = 0;  // só o escritor usa
+	private int front = 2; // só o leitor usa
+
+	public StateSnapshot() {
+		buffers = new double[3][AccelPipeline.STATE_SIZE];
+	}
+
+	/**
+	 * Publica o estado atual do motor. Chamado pela thread que processa as amostras.
+	 */
+	public void publish(AccelPipeline pipeline) {
+		pipeline.copyState(buffers[back], 0);
+		back = middle.getAndSet(back | DIRTY) & INDEX_MASK;
+	}
+
+	/**
+	 * Lê o último estado publicado.
+	 *
+	 * @return O vetor com o estado (no formato de {@link AccelPipeline#copyState(double[], int)}),
+	 *         válido até a próxima chamada, ou null se nada mudou desde a última leitura.
+	 */
+	public double[] poll() {
+		if ((middle.get() & DIRTY) == 0) return null;
+		front = middle.getAndSet(front) & INDEX_MASK;
+		return buffers[front];
+	}
+}
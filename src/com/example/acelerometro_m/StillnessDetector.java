@@ -0,0 +1,131 @@
+package com.example.acelerometro_m;
+
+import net.sourceforge.pdsplibj.pdsra.PdsFifoValue;
+
+/**
+ * Detector de repouso para a atualização de velocidade zero (ZUPT).
+ *
+ * Guarda as últimas amostras da aceleração filtrada de cada eixo num
+ * {@link PdsFifoValue} e compara a soma das variâncias dos três eixos com um
+ * limiar. Uma aceleração constante também tem variância baixa, então a
+ * norma da média da janela também deve ficar abaixo de um limite. Com a
+ * janela cheia e as duas condições, o celular está parado: a velocidade
+ * verdadeira é zero e a média da janela é o erro (bias) que sobrou na
+ * aceleração. Como a FIFO guarda as somas, cada
+ * amostra custa O(1), independente do tamanho da janela.
+ *
+ * <pre>
+ * StillnessDetector d = new StillnessDetector();
+ * if (d.update(ax, ay, az)) {
+ *     // parado: d.getMean(0..2) é o bias de cada eixo
+ * }
+ * </pre>
+ */
+public class StillnessDetector {
+
+	/** Número de amostras da janela usado por padrão. */
+	public static final int DEFAULT_WINDOW = 32;
+
+	/** Limiar padrão da soma das variâncias dos três eixos, em (m/s^2)^2. */
+	public static final double DEFAULT_THRESHOLD = 0.01;
+
+	/** Limite padrão da norma da média da janela, em m/s^2. */
+	public static final double DEFAULT_MAX_MEAN = 0.3;
+
+	private final int window;
+	private double threshold;
+	private double maxMean = DEFAULT_MAX_MEAN;
+	private final PdsFifoValue[] fifo = new PdsFifoValue[3];
+
+	private double variance;
+	private boolean still;
+	private boolean quiet;
+	// Amostras que faltam para a janela ter só amostras depois de restart()
+	private int pending;
+
+	public StillnessDetector() {
+		this(DEFAULT_WINDOW, DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * @param window Número de amostras da janela.
+	 * @param threshold Limiar da soma das variâncias dos três eixos.
+	 */
+	public StillnessDetector(int window, double threshold) {
+		if (window < 2) throw new IllegalArgumentException("A janela deve ter pelo menos 2 amostras: " + window);
+		this.window = window;
+		this.threshold = threshold;
+		for (int i = 0; i < 3; i++) fifo[i] = new PdsFifoValue(window);
+		restart();
+	}
+
+	/**
+	 * Descarta a janela atual: o detector só volta a avisar repouso depois de
+	 * {@link #getWindow()} amostras novas. Deve ser chamado quando as amostras
+	 * mudam de referência (por exemplo, quando o filtro é reiniciado), para
+	 * a média não misturar amostras de antes e de depois.
+	 */
+	public void restart() {
+		pending = window;
+		variance = 0;
+		still = false;
+		quiet = false;
+	}
+
+	/**
+	 * Acrescenta uma amostra.
+	 *
+	 * @return true se a janela está cheia, a soma das variâncias está abaixo
+	 *         do limiar e a norma da média está abaixo de {@link #getMaxMean()}.
+	 */
+	public boolean update(double x, double y, double z) {
+		PdsFifoValue fx = fifo[0], fy = fifo[1], fz = fifo[2];
+		fx.WriteValue(x);
+		fy.WriteValue(y);
+		fz.WriteValue(z);
+
+		if (pending > 0) pending--;
+		if (pending > 0) {
+			still = quiet = false;
+			return false;
+		}
+		variance = fx.GetVar() + fy.GetVar() + fz.GetVar();
+		quiet = variance < threshold;
+		if (quiet) {
+			double mx = fx.GetMean(), my = fy.GetMean(), mz = fz.GetMean();
+			still = mx * mx + my * my + mz * mz < maxMean * maxMean;
+		} else {
+			still = false;
+		}
+		return still;
+	}
+
+	/** @return O resultado da última chamada a {@link #update(double, double, double)}. */
+	public boolean isStill() { return still; }
+
+	/**
+	 * @return true se a última amostra passou só no teste da variância (a
+	 *         média pode ser grande: parado com um bias desconhecido, ou com
+	 *         aceleração constante).
+	 */
+	public boolean isQuiet() { return quiet; }
+
+	/** @return A soma das variâncias na última amostra com a janela cheia. */
+	public double getVariance() { return variance; }
+
+	/**
+	 * @param axis Eixo: 0 (x), 1 (y) ou 2 (z).
+	 * @return A média da janela nesse eixo.
+	 */
+	public double getMean(int axis) { return fifo[axis].GetMean(); }
+
+	public int getWindow() { return window; }
+
+	public double getThreshold() { return threshold; }
+
+	public void setThreshold(double threshold) { this.threshold = threshold; }
+
+	public double getMaxMean() { return maxMean; }
+
+	public void setMaxMean(double maxMean) { this.maxMean = maxMean; }
+}
@@ -0,0 +1,220 @@
+package com.example.acelerometro_m;
+
+import net.sourceforge.pdsplibj.pdsds.PdsWave;
+import net.sourceforge.pdsplibj.pdsrv.PdsGaussian;
+import net.sourceforge.pdsplibj.pdsrv.PdsSplitMix64;
+import net.sourceforge.pdsplibj.pdsrv.PdsXoshiro256;
+
+/**
+ * Fonte de amostras sintéticas de acelerômetro, para testar o processamento
+ * ({@link AccelPipeline}, {@link FrameRing}...) sem o celular e a taxas muito
+ * maiores que a do sensor.
+ *
+ * Cada amostra é a soma de:
+ * <ul>
+ * <li>gravidade: um vetor constante (ver {@link #setGravity(double, double, double)});</li>
+ * <li>movimento: um {@link PdsWave} por eixo, que dá um valor por amostra
+ *     (ver {@link #sine(int, double)}; no modo NCO, vários eixos ou fontes
+ *     podem usar a mesma tabela em frequências diferentes);</li>
+ * <li>bias: um passeio aleatório por eixo, que se afasta do valor inicial
+ *     com desvio {@link #getBiasWalk()} * sqrt(t);</li>
+ * <li>ruído: gaussiano branco com desvio {@link #getNoise()}.</li>
+ * </ul>
+ * O tempo da amostra k é k vezes o período nominal mais um erro gaussiano
+ * com desvio {@link #getJitter()}, que não se acumula; um erro maior que
+ * meio período pode gerar tempos repetidos ou fora de ordem, como num sensor
+ * real.
+ *
+ * As amostras saem em blocos, nos mesmos vetores de
+ * {@link FrameRing#drain(long[], double[], int)} (tempos em long[], leituras
+ * x,y,z intercaladas em double[]). Os números aleatórios do bloco são
+ * gerados de uma vez com {@link PdsGaussian#Fill(double[], int, int)} e nenhum
+ * objeto é criado por amostra. Com a mesma semente a sequência é sempre a
+ * mesma.
+ *
+ * <pre>
+ * SyntheticImuSource s = new SyntheticImuSource(1000, 1);  // 1 kHz
+ * s.setMotion(0, SyntheticImuSource.sine(1000, 0.5));      // 1 Hz no eixo X
+ * int n = s.read(t, xyz, 256);
+ * pipeline.processBatch(t, xyz, 0, n, null);
+ * </pre>
+ */
+public class SyntheticImuSource {
+
+	/** Desvio padrão padrão do ruído, em m/s^2. */
+	public static final double DEFAULT_NOISE = 0.02;
+
+	/** Desvio padrão padrão do passeio do bias, em m/s^2 por raiz de segundo. */
+	public static final double DEFAULT_BIAS_WALK = 0.001;
+
+	private final double rate;
+	private final double periodNs;
+	private final PdsGaussian gaussian;
+
+	private final PdsWave[] motion = new PdsWave[3];
+	private final double[] gravity = { 0, 0, AccelPipeline.GRAVITY };
+	private final double[] bias = new double[3];
+	private double noise = DEFAULT_NOISE;
+	private double biasWalk = DEFAULT_BIAS_WALK;
+	private double jitterNs;
+
+	private long startNs;
+	private long frames;
+	// Normais do passeio do bias e dos tempos, um bloco por vez
+	private double[] scratch = new double[0];
+	// Movimento de um eixo, um bloco por vez
+	private double[] wave = new double[0];
+
+	/**
+	 * @param rate Taxa de amostragem, em Hz. A semente é automática.
+	 */
+	public SyntheticImuSource(double rate) {
+		this(rate, PdsSplitMix64.NewSeed());
+	}
+
+	/**
+	 * @param rate Taxa de amostragem, em Hz.
+	 * @param seed Semente dos números aleatórios.
+	 */
+	public SyntheticImuSource(double rate, long seed) {
+		if (!(rate > 0)) throw new IllegalArgumentException("Taxa inválida: " + rate);
+		this.rate = rate;
+		this.periodNs = 1000000000.0 / rate;
+		this.gaussian = new PdsGaussian(0, 1, new PdsXoshiro256(seed));
+	}
+
+	/**
+	 * Cria um ciclo de seno para {@link #setMotion(int, PdsWave)}.
+	 *
+	 * @param samplesPerCycle Amostras por ciclo: a frequência é a taxa
+	 *                        dividida por este número.
+	 * @param amplitude Amplitude, em m/s^2.
+	 */
+	public static PdsWave sine(int samplesPerCycle, double amplitude) {
+		if (samplesPerCycle < 1) throw new IllegalArgumentException("Ciclo inválido: " + samplesPerCycle);
+		PdsWave w = new PdsWave(samplesPerCycle);
+		for (int i = 0; i < samplesPerCycle; i++) {
+			w.SetData(amplitude * Math.sin(2 * Math.PI * i / samplesPerCycle), i);
+		}
+		return w;
+	}
+
+	/**
+	 * Troca o movimento de um eixo.
+	 *
+	 * @param axis Eixo: 0 (x), 1 (y) ou 2 (z).
+	 * @param wave Aceleração do movimento, um valor por amostra; null para
+	 *             nenhum movimento.
+	 */
+	public void setMotion(int axis, PdsWave wave) {
+		motion[axis] = wave;
+	}
+
+	public PdsWave getMotion(int axis) { return motion[axis]; }
+
+	/** Troca a gravidade, em m/s^2 no sistema do celular. O padrão é (0, 0, {@link AccelPipeline#GRAVITY}). */
+	public void setGravity(double x, double y, double z) {
+		gravity[0] = x;
+		gravity[1] = y;
+		gravity[2] = z;
+	}
+
+	/** Troca o bias atual de um eixo; o passeio continua a partir dele. */
+	public void setBias(int axis, double value) { bias[axis] = value; }
+
+	/** @return O bias atual do eixo (0, 1 ou 2), em m/s^2. */
+	public double getBias(int axis) { return bias[axis]; }
+
+	public void setNoise(double sigma) {
+		if (sigma < 0) throw new IllegalArgumentException("Desvio inválido: " + sigma);
+		noise = sigma;
+	}
+
+	public double getNoise() { return noise; }
+
+	public void setBiasWalk(double sigma) {
+		if (sigma < 0) throw new IllegalArgumentException("Desvio inválido: " + sigma);
+		biasWalk = sigma;
+	}
+
+	public double getBiasWalk() { return biasWalk; }
+
+	/** @param ns Desvio padrão do erro dos tempos, em nanossegundos (0: sem erro). */
+	public void setJitter(double ns) {
+		if (ns < 0) throw new IllegalArgumentException("Desvio inválido: " + ns);
+		jitterNs = ns;
+	}
+
+	public double getJitter() { return jitterNs; }
+
+	/** Troca o tempo nominal da amostra 0, em nanossegundos. */
+	public void setStartTime(long ns) { startNs = ns; }
+
+	public double getRate() { return rate; }
+
+	/** @return O período nominal, em nanossegundos. */
+	public double getPeriodNs() { return periodNs; }
+
+	/** @return O número de amostras geradas até agora. */
+	public long getFrames() { return frames; }
+
+	/**
+	 * Gera as próximas n amostras.
+	 *
+	 * @param t Recebe os tempos, em nanossegundos, de t[0] a t[n-1].
+	 * @param xyz Recebe as leituras x,y,z intercaladas, de xyz[0] a xyz[3n-1].
+	 * @param n Número de amostras.
+	 * @return n.
+	 */
+	public int read(long[] t, double[] xyz, int n) {
+		if (n <= 0) return 0;
+
+		// Ruído N(0,1) direto na saída; escalado no laço
+		gaussian.Fill(xyz, 0, 3 * n);
+
+		boolean walk = biasWalk > 0, jitter = jitterNs > 0;
+		int walkLen = walk ? 3 * n : 0;
+		int extra = walkLen + (jitter ? n : 0);
+		if (extra > 0) {
+			if (scratch.length < extra) scratch = new double[extra];
+			gaussian.Fill(scratch, 0, extra);
+		}
+		double[] r = scratch;
+
+		double step = biasWalk * Math.sqrt(periodNs / 1000000000.0);
+		double s = noise;
+		double gx = gravity[0], gy = gravity[1], gz = gravity[2];
+		double bx = bias[0], by = bias[1], bz = bias[2];
+
+		for (int i = 0; i < n; i++) {
+			long ti = startNs + Math.round((frames + i) * periodNs);
+			if (jitter) ti += Math.round(jitterNs * r[walkLen + i]);
+			t[i] = ti;
+
+			int p = 3 * i;
+			if (walk) {
+				bx += step * r[p];
+				by += step * r[p + 1];
+				bz += step * r[p + 2];
+			}
+			xyz[p] = gx + bx + s * xyz[p];
+			xyz[p + 1] = gy + by + s * xyz[p + 1];
+			xyz[p + 2] = gz + bz + s * xyz[p + 2];
+		}
+
+		for (int a = 0; a < 3; a++) {
+			PdsWave m = motion[a];
+			if (m == null) continue;
+			if (wave.length < n) wave = new double[n];
+			m.Render(wave, n);
+			double[] w = wave;
+			for (int i = 0; i < n; i++) xyz[3 * i + a] += w[i];
+		}
+
+		bias[0] = bx;
+		bias[1] = by;
+		bias[2] = bz;
+		frames += n;
+		return n;
+	}
+}
@@ -48,6 +48,21 @@ import  net.sourceforge.pdsplibj.pdsrv.*;
   
     hatUk=filtro.EvaluateValue(Zk);
  *  </pre>
+ *
+ *  <br>O filtro tem dois modos para diminuir o custo de cada avaliação:
+ *  <ul>
+ *  <li>{@link #DisableNoise()}: não soma a fonte simulada {@latex.inline $\\hat{U}_k$}
+ *      na predição, então o filtro é determinístico (a mesma entrada sempre
+ *      da a mesma saída) e não gasta um valor gaussiano por amostra.</li>
+ *  <li>{@link #EnableSteadyState()}: usa o ganho {@latex.inline $K_\\infty$}
+ *      ao que converge {@latex.inline $K_k$}, calculado uma só vez, então cada
+ *      avaliação é só a predição e a correção de {@latex.inline $\\hat{X}_k$}.</li>
+ *  </ul>
+ *  O modo de estado estacionário também é habilitado sozinho quando
+ *  {@latex.inline $P_k$} deixa de mudar (ver {@link #SetTolerance(double)}), e
+ *  é desabilitado se os parâmetros mudam com {@link #SetParameters(double,double,double,double)}.
+ *  O número de avaliações feitas em cada modo é dado por {@link #GetFullCount()}
+ *  e {@link #GetSteadyStateCount()}.
  * 
  * @bibitem Referencia1, Fernando Pujaico Rivera.
  *                     MAnual xxx xx xxxxxx,
@@ -69,6 +84,25 @@ public class PdsKalman1D {
 	private double H;
 	private double Q;
 	private double R;
+
+	// 1 se soma a fonte simulada U_k na predição.
+	private int Noise;
+
+	// 1 se usa o ganho de estado estacionário Kss.
+	private int SteadyState;
+	private double Kss;
+
+	// Tolerância relativa para detectar que P_k convergiu; 0 não detecta.
+	private double Tol;
+
+	// Número de avaliações com a recursão completa e com o ganho Kss.
+	private long FullCount;
+	private long SteadyCount;
+
+	/**
+	 * Tolerância usada por defeito em {@link #SetTolerance(double)}.
+	 */
+	public static final double DEFAULT_TOLERANCE=1e-9;
 	
 	PdsGaussian G=null;
 
@@ -108,7 +142,214 @@ public class PdsKalman1D {
 		this.R=R;
 		
 		this.G=new PdsGaussian(0,Math.sqrt(Q));
-		
+
+		this.Noise=1;
+		this.SteadyState=0;
+		this.Tol=DEFAULT_TOLERANCE;
+		this.FullCount=0;
+		this.SteadyCount=0;
+	}
+
+	/**
+	 * Muda os parâmetros do filtro.
+	 *
+	 * O filtro continua desde os valores atuais de {@latex.inline $\\hat{X}_k$} e
+	 * {@latex.inline $P_k$}, mas volta a calcular {@latex.inline $P_k$} e
+	 * {@latex.inline $K_k$} em cada avaliação até que convirjam de novo.
+	 *
+	 * @param A É um fator do modelo de fonte ideal {@latex.inline $X_k$} onde {@latex.inline $X_k =A X_{k-1} + U_k$}.
+	 * @param H É um fator do modelo de fonte real {@latex.inline $Z_k$} onde {@latex.inline $Z_k=H X_k + V_k$}.
+	 * @param Q É a variância de {@latex.inline $U_k$}.
+	 * @param R É a variância de {@latex.inline $V_k$}.
+	 **/
+	public void SetParameters(double A,double H,double Q,double R) {
+		if(Q!=this.Q)	this.G=new PdsGaussian(0,Math.sqrt(Q));
+
+		this.A=A;
+		this.H=H;
+		this.Q=Q;
+		this.R=R;
+
+		this.SteadyState=0;
+	}
+
+	/**
+	 * Muda o parâmetro A. Ver {@link #SetParameters(double,double,double,double)}.
+	 * @param A É um fator do modelo de fonte ideal {@latex.inline $X_k$} onde {@latex.inline $X_k =A X_{k-1} + U_k$}.
+	 **/
+	public void SetA(double A) {
+		SetParameters(A,this.H,this.Q,this.R);
+	}
+
+	/**
+	 * Muda o parâmetro H. Ver {@link #SetParameters(double,double,double,double)}.
+	 * @param H É um fator do modelo de fonte real {@latex.inline $Z_k$} onde {@latex.inline $Z_k=H X_k + V_k$}.
+	 **/
+	public void SetH(double H) {
+		SetParameters(this.A,H,this.Q,this.R);
+	}
+
+	/**
+	 * Muda o parâmetro Q. Ver {@link #SetParameters(double,double,double,double)}.
+	 * @param Q É a variância de {@latex.inline $U_k$}.
+	 **/
+	public void SetQ(double Q) {
+		SetParameters(this.A,this.H,Q,this.R);
+	}
+
+	/**
+	 * Muda o parâmetro R. Ver {@link #SetParameters(double,double,double,double)}.
+	 * @param R É a variância de {@latex.inline $V_k$}.
+	 **/
+	public void SetR(double R) {
+		SetParameters(this.A,this.H,this.Q,R);
+	}
+
+	/** @return Retorna o parâmetro A. */
+	public double GetA() {
+		return this.A;
+	}
+
+	/** @return Retorna o parâmetro H. */
+	public double GetH() {
+		return this.H;
+	}
+
+	/** @return Retorna o parâmetro Q. */
+	public double GetQ() {
+		return this.Q;
+	}
+
+	/** @return Retorna o parâmetro R. */
+	public double GetR() {
+		return this.R;
+	}
+
+	/**
+	 * Coloca a tolerância para detectar a convergência de {@latex.inline $P_k$}.
+	 *
+	 * Quando {@latex.inline $|P_k-P_{k-1}| \\leq tol |P_k|$}, o filtro guarda o
+	 * ganho {@latex.inline $K_k$} atual e passa ao modo de estado estacionário
+	 * (como {@link #EnableSteadyState()}). Por defeito é {@link #DEFAULT_TOLERANCE}.
+	 *
+	 * @param tol É a tolerância relativa. Se é 0, a convergência não é detectada.
+	 **/
+	public void SetTolerance(double tol) {
+		this.Tol=tol;
+	}
+
+	/**
+	 * Este método retorna o número de avaliações feitas com a recursão
+	 * completa de {@latex.inline $P_k$} e {@latex.inline $K_k$}.
+	 *
+	 * @return Retorna o número de avaliações com a recursão completa.
+	 **/
+	public long GetFullCount() {
+		return this.FullCount;
+	}
+
+	/**
+	 * Este método retorna o número de avaliações feitas com o ganho de
+	 * estado estacionário.
+	 *
+	 * @return Retorna o número de avaliações no modo de estado estacionário.
+	 **/
+	public long GetSteadyStateCount() {
+		return this.SteadyCount;
+	}
+
+	/**
+	 * Coloca em zero os contadores {@link #GetFullCount()} e {@link #GetSteadyStateCount()}.
+	 **/
+	public void ResetCounts() {
+		this.FullCount=0;
+		this.SteadyCount=0;
+	}
+
+	/**
+	 * Este método diz se o filtro está no modo de estado estacionário.
+	 *
+	 * @return Retorna true se as avaliações usam o ganho {@latex.inline $K_\\infty$}.
+	 **/
+	public boolean IsSteadyState() {
+		return this.SteadyState==1;
+	}
+
+	/**
+	 * Desabilita a fonte simulada {@latex.inline $\\hat{U}_k$} na predição:
+	 * {@latex.inline $X^-_k =A X_{k-1}$}. Assim o filtro é determinístico.
+	 */
+	public void DisableNoise(){
+		this.Noise=0;
+	}
+
+	/**
+	 * Habilita a fonte simulada {@latex.inline $\\hat{U}_k$} na predição:
+	 * {@latex.inline $X^-_k =A X_{k-1} + \\hat{U}_k$}. É o modo por defeito.
+	 */
+	public void EnableNoise(){
+		this.Noise=1;
+	}
+
+	/**
+	 * Habilita o modo de estado estacionário.
+	 *
+	 * O ganho {@latex.inline $K_k$} não depende da entrada, e para A, H, Q e R
+	 * fixos converge a um valor {@latex.inline $K_\\infty$}. Este método
+	 * calcula {@latex.inline $K_\\infty$} (ver {@link #GetSteadyStateK()}) e desde
+	 * então cada avaliação usa esse ganho, sem calcular {@latex.inline $P_k$}.
+	 */
+	public void EnableSteadyState(){
+		double Pminus=SteadyStatePminus(this.A,this.H,this.Q,this.R);
+
+		if(this.H==0)	this.Kss=0;
+		else			this.Kss=Pminus*this.H / (this.H*Pminus*this.H+this.R);
+		this.P=(1.0 - this.Kss*this.H)*Pminus;
+
+		this.SteadyState=1;
+	}
+
+	/**
+	 * Desabilita o modo de estado estacionário. O filtro volta a calcular
+	 * {@latex.inline $P_k$} e {@latex.inline $K_k$} em cada avaliação, a partir
+	 * de {@latex.inline $P_\\infty$}. É o modo por defeito.
+	 * Se a tolerância não é zero (ver {@link #SetTolerance(double)}), o filtro
+	 * volta ao modo de estado estacionário assim que detecte a convergência.
+	 */
+	public void DisableSteadyState(){
+		this.SteadyState=0;
+	}
+
+	/**
+	 * Este método retorna o ganho de estado estacionário {@latex.inline $K_\\infty$}.
+	 *
+	 * Só tem sentido se {@link #IsSteadyState()} é true.
+	 * @return Retorna o ganho {@latex.inline $K_\\infty$}.
+	 **/
+	public double GetSteadyStateK() {
+		return this.Kss;
+	}
+
+	/**
+	 * Calcula o valor ao que converge {@latex.inline $P^-_k$} para A, H, Q e R fixos.
+	 *
+	 * É a raiz positiva da equação de Riccati
+	 * {@latex.inline $H^2 M^2 + (R(1-A^2)-QH^2) M - QR = 0$}, com
+	 * {@latex.inline $M=P^-_\\infty$}. Se H=0 então retorna
+	 * {@latex.inline $Q/(1-A^2)$} (ou infinito se {@latex.inline $|A| \\geq 1$}).
+	 **/
+	static double SteadyStatePminus(double A,double H,double Q,double R) {
+		double b,H2;
+
+		if(H==0)
+		{
+			if(A*A<1)	return Q/(1-A*A);
+			return Double.POSITIVE_INFINITY;
+		}
+
+		H2=H*H;
+		b=R*(1-A*A)-Q*H2;
+		return (-b+Math.sqrt(b*b+4*H2*Q*R))/(2*H2);
 	}
 
 
@@ -130,10 +371,20 @@ public class PdsKalman1D {
 		double Xminus;
 		double Pminus;
 		double K;
+		double PNow;
 
 		double UNow;
 
-		UNow=G.GetValue();
+		if(this.Noise==1)	UNow=G.GetValue();
+		else				UNow=0;
+
+		if(this.SteadyState==1)
+		{
+			Xminus=this.A*this.X+ UNow;
+			this.X = Xminus + this.Kss*(ZNow-this.H*Xminus);
+			this.SteadyCount=this.SteadyCount+1;
+			return this.X;
+		}
 
 		//Prediction
 		Xminus=this.A*this.X+ UNow;
@@ -143,7 +394,16 @@ public class PdsKalman1D {
 		K    = Pminus*this.H / (this.H*Pminus*this.H+R);
 		
 		this.X = Xminus + K*(ZNow-this.H*Xminus);
-		this.P = (1.0 - K*this.H)*Pminus;
+		PNow = (1.0 - K*this.H)*Pminus;
+
+		//Convergência de P_k
+		if( (this.Tol>0)&&(Math.abs(PNow-this.P)<=this.Tol*Math.abs(PNow)) )
+		{
+			this.Kss=K;
+			this.SteadyState=1;
+		}
+		this.P = PNow;
+		this.FullCount=this.FullCount+1;
 
 		return this.X;
 	}
@@ -169,13 +429,15 @@ public class PdsKalman1D {
 	 * predito e {@latex.inline $P_k$} predito.
 	 *
 	 * Esta funcão é só para os mais curiosos que desejam ver/mexer adentro
-	 * do filtro Kalman.
+	 * do filtro Kalman. O filtro volta a calcular {@latex.inline $P_k$} e
+	 * {@latex.inline $K_k$} em cada avaliação até que convirjam de novo.
 	 * @param X0 Valor inicial de {@latex.inline $\\hat{X}_k$} predito.
 	 * @param P0 Valor inicial de {@latex.inline $P_k$} predito.
 	 **/
 	public void Init(double X0,double P0) {
 		this.X=X0;
 		this.P=P0;
+		this.SteadyState=0;
 	}
  
 }
@@ -0,0 +1,478 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package net.sourceforge.pdsplibj.pdsdf;
+
+import  net.sourceforge.pdsplibj.pdsrv.*;
+
+/**
+ * Esta classe implementa N filtros Kalman de entrada unidimensional, um por
+ * canal, avaliados todos juntos. É equivalente a usar N instâncias de
+ * {@link PdsKalman1D}, por exemplo uma por eixo de um acelerômetro.
+ *
+ * <br><br>
+ * Os valores {@latex.inline $\\hat{X}_k$} de todos os canais ficam num só
+ * vetor, e todos os canais são atualizados num mesmo laço. Se todos os canais
+ * usam os mesmos parâmetros A, H, Q e R, então a variança {@latex.inline $P_k$}
+ * e o ganho {@latex.inline $K_k$} (que não dependem da entrada) são calculados
+ * uma só vez para todos os canais. Todos os canais usam uma mesma fonte
+ * gaussiana para simular {@latex.inline $\\hat{U}_k$}.
+ * Os modos {@link #DisableNoise()} e {@link #EnableSteadyState()}, a detecção
+ * da convergência de {@latex.inline $P_k$} e os contadores são os mesmos de
+ * {@link PdsKalman1D}; o modo de estado estacionário é habilitado sozinho
+ * quando todos os canais convergiram.
+ *  <br> 
+ *  <br>Para usar esta classe é necessário importar-la com:
+ *  <pre>  
+	import net.sourceforge.pdsplibj.pdsdf.PdsKalman1DArray; 
+ *  </pre>
+ *
+ *  <br>Para usar este filtro pode-se usar este código de exemplo:
+ *  <pre>  
+    PdsKalman1DArray filtro=new PdsKalman1DArray(3,A,H,Q,R);
+    double[] Zk=new double[3];
+    double[] hatXk=new double[3];
+  
+    filtro.EvaluateValues(Zk,hatXk);
+ *  </pre>
+ * 
+ * @version 0.01
+ * @see <a href="http://pdsplib.sourceforge.net"> PDS Project Libraries in Java </a>
+ * @see PdsKalman1D
+ */
+public class PdsKalman1DArray {
+	// Número de canais
+	private int N;
+
+	//valores iterativos de cada canal
+	private double[] X;
+	// P de cada canal, ou P[0] para todos os canais se Shared é true.
+	private double[] P;
+
+	//Variaveis do sistema de cada canal
+	private double[] A;
+	private double[] H;
+	private double[] Q;
+	private double[] R;
+	private double[] SqrtQ;
+
+	// true se todos os canais tem os mesmos A,H,Q,R e P.
+	private boolean Shared;
+
+	// Valores de U_k de cada canal na última avaliação.
+	private double[] U;
+
+	// 1 se soma a fonte simulada U_k na predição.
+	private int Noise;
+
+	// 1 se usa o ganho de estado estacionário Kss de cada canal.
+	private int SteadyState;
+	private double[] Kss;
+
+	// Tolerância relativa para detectar que P_k convergiu; 0 não detecta.
+	private double Tol;
+
+	// Número de avaliações com a recursão completa e com o ganho Kss.
+	private long FullCount;
+	private long SteadyCount;
+
+	PdsGaussian G=null;
+
+	/**
+	 * Este construtor cria N filtros KALMAN com os mesmos parâmetros.
+	 *
+	 * Cada canal usa o mesmo modelo de {@link PdsKalman1D#PdsKalman1D(double,double,double,double)}.
+	 *
+	 * @param N É o número de canais.
+	 * @param A É um fator do modelo de fonte ideal {@latex.inline $X_k$} onde {@latex.inline $X_k =A X_{k-1} + U_k$}.
+	 * @param H É um fator do modelo de fonte real {@latex.inline $Z_k$} onde {@latex.inline $Z_k=H X_k + V_k$}.
+	 * @param Q É a variância de {@latex.inline $U_k$}.
+	 * @param R É a variância de {@latex.inline $V_k$}.
+	 **/
+	public PdsKalman1DArray(int N,double A,double H,double Q,double R) {
+		this(Fill(N,A),Fill(N,H),Fill(N,Q),Fill(N,R));
+	}
+
+	/**
+	 * Este construtor cria um filtro KALMAN por canal, cada um com seus
+	 * próprios parâmetros. O número de canais é o tamanho dos vetores.
+	 *
+	 * Se todos os canais têm os mesmos parâmetros, então eles compartem
+	 * o cálculo de {@latex.inline $P_k$} e {@latex.inline $K_k$}.
+	 *
+	 * @param A São os fatores A de cada canal.
+	 * @param H São os fatores H de cada canal.
+	 * @param Q São as variâncias de {@latex.inline $U_k$} de cada canal.
+	 * @param R São as variâncias de {@latex.inline $V_k$} de cada canal.
+	 **/
+	public PdsKalman1DArray(double[] A,double[] H,double[] Q,double[] R) {
+		int i;
+
+		this.N=A.length;
+		if( (H.length!=this.N)||(Q.length!=this.N)||(R.length!=this.N) )
+			throw new IllegalArgumentException("A, H, Q e R devem ter o mesmo tamanho.");
+
+		this.A=A.clone();
+		this.H=H.clone();
+		this.Q=Q.clone();
+		this.R=R.clone();
+
+		this.SqrtQ=new double[this.N];
+		for(i=0;i<this.N;i++)	this.SqrtQ[i]=Math.sqrt(this.Q[i]);
+
+		this.Shared=true;
+		for(i=1;i<this.N;i++)
+		{
+			if( (this.A[i]!=this.A[0])||(this.H[i]!=this.H[0])||
+			    (this.Q[i]!=this.Q[0])||(this.R[i]!=this.R[0]) )	this.Shared=false;
+		}
+
+		this.X=new double[this.N];
+		this.P=new double[this.Shared?1:this.N];
+		this.U=new double[this.N];
+		this.Kss=new double[this.P.length];
+
+		this.G=new PdsGaussian(0,1);
+
+		this.Noise=1;
+		this.SteadyState=0;
+		this.Tol=PdsKalman1D.DEFAULT_TOLERANCE;
+		this.FullCount=0;
+		this.SteadyCount=0;
+	}
+
+	/**
+	 * Muda os parâmetros de todos os canais.
+	 * @see PdsKalman1D#SetParameters(double,double,double,double)
+	 **/
+	public void SetParameters(double A,double H,double Q,double R) {
+		for(int i=0;i<this.N;i++)
+		{
+			this.A[i]=A;
+			this.H[i]=H;
+			this.Q[i]=Q;
+			this.R[i]=R;
+			this.SqrtQ[i]=Math.sqrt(Q);
+		}
+		this.SteadyState=0;
+	}
+
+	/**
+	 * Muda os parâmetros de um canal. Se ficam diferentes dos outros canais,
+	 * então o canal deixa de compartir o cálculo (ver {@link #IsShared()}).
+	 * @param id É o número do canal, de 0 a N-1.
+	 * @see PdsKalman1D#SetParameters(double,double,double,double)
+	 **/
+	public void SetParameters(int id,double A,double H,double Q,double R) {
+		if( this.Shared && ((A!=this.A[id])||(H!=this.H[id])||(Q!=this.Q[id])||(R!=this.R[id])) )
+			Unshare();
+
+		this.A[id]=A;
+		this.H[id]=H;
+		this.Q[id]=Q;
+		this.R[id]=R;
+		this.SqrtQ[id]=Math.sqrt(Q);
+		this.SteadyState=0;
+	}
+
+	/**
+	 * Coloca a tolerância para detectar a convergência de {@latex.inline $P_k$}
+	 * de todos os canais.
+	 * @see PdsKalman1D#SetTolerance(double)
+	 **/
+	public void SetTolerance(double tol) {
+		this.Tol=tol;
+	}
+
+	/**
+	 * @return Retorna o número de avaliações com a recursão completa.
+	 * @see PdsKalman1D#GetFullCount()
+	 **/
+	public long GetFullCount() {
+		return this.FullCount;
+	}
+
+	/**
+	 * @return Retorna o número de avaliações no modo de estado estacionário.
+	 * @see PdsKalman1D#GetSteadyStateCount()
+	 **/
+	public long GetSteadyStateCount() {
+		return this.SteadyCount;
+	}
+
+	/**
+	 * Coloca em zero os contadores {@link #GetFullCount()} e {@link #GetSteadyStateCount()}.
+	 **/
+	public void ResetCounts() {
+		this.FullCount=0;
+		this.SteadyCount=0;
+	}
+
+	/**
+	 * @return Retorna true se as avaliações usam o ganho {@latex.inline $K_\\infty$}.
+	 * @see PdsKalman1D#IsSteadyState()
+	 **/
+	public boolean IsSteadyState() {
+		return this.SteadyState==1;
+	}
+
+	private static double[] Fill(int N,double value) {
+		double[] v=new double[N];
+		for(int i=0;i<N;i++)	v[i]=value;
+		return v;
+	}
+
+	/**
+	 * Desabilita a fonte simulada {@latex.inline $\\hat{U}_k$} na predição
+	 * de todos os canais.
+	 * @see PdsKalman1D#DisableNoise()
+	 */
+	public void DisableNoise(){
+		this.Noise=0;
+		for(int i=0;i<this.N;i++)	this.U[i]=0;
+	}
+
+	/**
+	 * Habilita a fonte simulada {@latex.inline $\\hat{U}_k$} na predição
+	 * de todos os canais. É o modo por defeito.
+	 * @see PdsKalman1D#EnableNoise()
+	 */
+	public void EnableNoise(){
+		this.Noise=1;
+	}
+
+	/**
+	 * Habilita o modo de estado estacionário em todos os canais.
+	 * @see PdsKalman1D#EnableSteadyState()
+	 */
+	public void EnableSteadyState(){
+		double Pminus;
+		int i;
+
+		for(i=0;i<this.Kss.length;i++)
+		{
+			Pminus=PdsKalman1D.SteadyStatePminus(this.A[i],this.H[i],this.Q[i],this.R[i]);
+
+			if(this.H[i]==0)	this.Kss[i]=0;
+			else				this.Kss[i]=Pminus*this.H[i] / (this.H[i]*Pminus*this.H[i]+this.R[i]);
+			this.P[i]=(1.0 - this.Kss[i]*this.H[i])*Pminus;
+		}
+		this.SteadyState=1;
+	}
+
+	/**
+	 * Desabilita o modo de estado estacionário em todos os canais. É o modo
+	 * por defeito.
+	 * @see PdsKalman1D#DisableSteadyState()
+	 */
+	public void DisableSteadyState(){
+		this.SteadyState=0;
+	}
+
+	/**
+	 * Este método avalia o filtro Kalman de todos os canais.
+	 * 
+	 * Para cada canal i recebe {@latex.inline $Z_k$}=ZNow[i] e escreve o valor
+	 * filtrado {@latex.inline $\\hat{X}_k$} em XNow[i].
+	 * 
+	 * @param ZNow São as entradas dos canais, com pelo menos N elementos.
+	 * @param XNow Recebe as saídas dos canais. Pode ser o mesmo vetor ZNow.
+	 **/
+	public void EvaluateValues(double[] ZNow,double[] XNow) {
+		EvaluateValues(ZNow,0,XNow,0);
+	}
+
+	/**
+	 * Este método avalia o filtro Kalman de todos os canais.
+	 * 
+	 * Para cada canal i recebe {@latex.inline $Z_k$}=ZNow[zOff+i] e escreve o
+	 * valor filtrado {@latex.inline $\\hat{X}_k$} em XNow[xOff+i].
+	 * 
+	 * @param ZNow São as entradas dos canais.
+	 * @param zOff Posição da entrada do canal 0.
+	 * @param XNow Recebe as saídas dos canais.
+	 * @param xOff Posição da saída do canal 0.
+	 **/
+	public void EvaluateValues(double[] ZNow,int zOff,double[] XNow,int xOff) {
+		int i;
+		double Xminus,Pminus,K,PNow;
+		boolean converged;
+
+		if(this.Noise==1)
+		{
+			for(i=0;i<this.N;i++)	this.U[i]=this.SqrtQ[i]*G.GetValue();
+		}
+
+		if(this.Shared)
+		{
+			double a=this.A[0];
+			double h=this.H[0];
+
+			if(this.SteadyState==1)
+			{
+				K=this.Kss[0];
+				this.SteadyCount=this.SteadyCount+1;
+			}
+			else
+			{
+				//Prediction e Correction de P, iguais para todos os canais
+				Pminus=a*this.P[0]*a+this.Q[0];
+				K    = Pminus*h / (h*Pminus*h+this.R[0]);
+				PNow = (1.0 - K*h)*Pminus;
+
+				if( (this.Tol>0)&&(Math.abs(PNow-this.P[0])<=this.Tol*Math.abs(PNow)) )
+				{
+					this.Kss[0]=K;
+					this.SteadyState=1;
+				}
+				this.P[0] = PNow;
+				this.FullCount=this.FullCount+1;
+			}
+
+			for(i=0;i<this.N;i++)
+			{
+				Xminus=a*this.X[i]+this.U[i];
+				this.X[i]=Xminus + K*(ZNow[zOff+i]-h*Xminus);
+				XNow[xOff+i]=this.X[i];
+			}
+		}
+		else if(this.SteadyState==1)
+		{
+			for(i=0;i<this.N;i++)
+			{
+				Xminus=this.A[i]*this.X[i]+this.U[i];
+				this.X[i]=Xminus + this.Kss[i]*(ZNow[zOff+i]-this.H[i]*Xminus);
+				XNow[xOff+i]=this.X[i];
+			}
+			this.SteadyCount=this.SteadyCount+1;
+		}
+		else
+		{
+			converged=(this.Tol>0);
+			for(i=0;i<this.N;i++)
+			{
+				//Prediction
+				Xminus=this.A[i]*this.X[i]+this.U[i];
+				Pminus=this.A[i]*this.P[i]*this.A[i]+this.Q[i];
+
+				//Correction
+				K    = Pminus*this.H[i] / (this.H[i]*Pminus*this.H[i]+this.R[i]);
+
+				this.X[i] = Xminus + K*(ZNow[zOff+i]-this.H[i]*Xminus);
+				PNow = (1.0 - K*this.H[i])*Pminus;
+				XNow[xOff+i]=this.X[i];
+
+				if(Math.abs(PNow-this.P[i])>this.Tol*Math.abs(PNow))	converged=false;
+				this.P[i] = PNow;
+				this.Kss[i] = K;
+			}
+			if(converged)	this.SteadyState=1;
+			this.FullCount=this.FullCount+1;
+		}
+	}
+
+	/**
+	 * Este método retorna o número de canais.
+	 *
+	 * @return Retorna o número de canais N.
+	 **/
+	public int GetChannels() {
+		return this.N;
+	}
+
+	/**
+	 * Este método retorna o último valor {@latex.inline $\\hat{X}_k$} de um canal.
+	 *
+	 * @param id É o número do canal, de 0 a N-1.
+	 * @return Retorna o último valor filtrado do canal.
+	 **/
+	public double GetValue(int id) {
+		return this.X[id];
+	}
+
+	/**
+	 * Este método retorna o valor atual da variável interna {@latex.inline $P_k$}
+	 * de um canal.
+	 *
+	 * @param id É o número do canal, de 0 a N-1.
+	 * @return Retorna o valor atual da variável {@latex.inline $P_k$} do canal.
+	 * @see PdsKalman1D#GetCurrentP()
+	 **/
+	public double GetCurrentP(int id) {
+		return this.Shared?this.P[0]:this.P[id];
+	}
+
+	/**
+	 * Este método diz se todos os canais compartem o cálculo de
+	 * {@latex.inline $P_k$} e {@latex.inline $K_k$}.
+	 *
+	 * @return Retorna true se todos os canais têm os mesmos A, H, Q, R e P.
+	 **/
+	public boolean IsShared() {
+		return this.Shared;
+	}
+
+	/**
+	 * Este método inicia os primeiros valores de {@latex.inline $\\hat{X}_k$} 
+	 * predito e {@latex.inline $P_k$} predito de todos os canais.
+	 *
+	 * @param X0 Valor inicial de {@latex.inline $\\hat{X}_k$} predito.
+	 * @param P0 Valor inicial de {@latex.inline $P_k$} predito.
+	 * @see PdsKalman1D#Init(double,double)
+	 **/
+	public void Init(double X0,double P0) {
+		for(int i=0;i<this.N;i++)	this.X[i]=X0;
+		for(int i=0;i<this.P.length;i++)	this.P[i]=P0;
+		this.SteadyState=0;
+	}
+
+	/**
+	 * Este método inicia os primeiros valores de {@latex.inline $\\hat{X}_k$} 
+	 * predito e {@latex.inline $P_k$} predito de um canal.
+	 *
+	 * Se os canais compartem {@latex.inline $P_k$} e P0 é diferente do valor
+	 * atual, então o canal deixa de compartir o cálculo (ver {@link #IsShared()}).
+	 * @param id É o número do canal, de 0 a N-1.
+	 * @param X0 Valor inicial de {@latex.inline $\\hat{X}_k$} predito.
+	 * @param P0 Valor inicial de {@latex.inline $P_k$} predito.
+	 **/
+	public void Init(int id,double X0,double P0) {
+		this.X[id]=X0;
+
+		if(this.Shared)
+		{
+			if(P0==this.P[0])	return;
+			Unshare();
+		}
+		this.P[id]=P0;
+		this.SteadyState=0;
+	}
+
+	// Passa de P e Kss compartidos a um valor por canal.
+	private void Unshare() {
+		double[] Pall=new double[this.N];
+		for(int i=0;i<this.N;i++)	Pall[i]=this.P[0];
+		this.P=Pall;
+
+		double[] Kall=new double[this.N];
+		for(int i=0;i<this.N;i++)	Kall[i]=this.Kss[0];
+		this.Kss=Kall;
+
+		this.Shared=false;
+	}
+}
@@ -74,6 +74,13 @@ public class PdsKalman1DTool {
 
 	private PdsVector D;
 
+	// Espaço de trabalho de GetParameters(): hF[i]=Cor(i+1)/(var_a-R).
+	private double[] hF;
+
+	// Número máximo de iterações e tolerância relativa no cálculo de A.
+	private static final int MAX_ITERATIONS=20;
+	private static final double TOLERANCE=1e-12;
+
 	private PdsFifoValue fa;
 	private PdsFifoValue fr;
 
@@ -96,7 +103,14 @@ public class PdsKalman1DTool {
 		this.D = new PdsVector(4);
 		D.SetValue(0,this.H);
 
+		this.hF= new double[this.L];
+
 		this.fa= new PdsFifoValue(N);
+		// As autocorrelações usadas por GetParameters() são incrementais,
+		// então os parâmetros podem ser calculados após cada amostra.
+		int[] lags=new int[Math.max(0,Math.min(this.L,N-1))];
+		for(int i=0;i<lags.length;i++)	lags[i]=i+1;
+		this.fa.SetLags(lags);
 
 		this.fr= new PdsFifoValue(N);
 	}
@@ -132,16 +146,22 @@ public class PdsKalman1DTool {
 	 * 
 	 * Este método calcula os parâmetros com a quantidade atual de dados do 
 	 * sensor em repouso e em atividade.
+	 * <br>
+	 * A é o valor que melhor aproxima (em mínimos quadrados) as
+	 * autocorrelações normalizadas {@latex.inline $hF_i \\approx A^{i}$},
+	 * {@latex.inline $i=1..L$}, calculado com iterações de Gauss-Newton até
+	 * que A deixe de mudar. O método não cria objetos novos, e as
+	 * autocorrelações são incrementais (ver PdsFifoValue.SetLags), então
+	 * pode ser chamado após cada amostra.
 	 * @return Retorna um vetor, do tipo PdsVector, com os parâmetros {H,R,A,Q}.
+	 *         É sempre o mesmo objeto, atualizado em cada chamada.
 	 **/
 	public PdsVector GetParameters( ) {
 
 		double var_a;
-		double cor,q;
+		double q;
+		double pow,num,den,res,jac,dA;
 		int i,j;
-		PdsVector hF= new PdsVector(this.L);
-		PdsVector  F= new PdsVector(this.L);
-		PdsVector  J= new PdsVector(this.L);
 
 		////////////////////////////////////////////////////////////////////////
 		// R
@@ -152,19 +172,27 @@ public class PdsKalman1DTool {
 		var_a=this.fa.GetVar();
 		for(i=0;i<this.L;i++)
 		{
-			cor=this.fa.GetCor(i+1);
-			hF.SetValue(i,cor/(var_a-R));
+			this.hF[i]=this.fa.GetCor(i+1)/(var_a-R);
 		}
-		A=hF.GetValue(0);	// valor inicial de A
-		//System.out.print (A+"\n");
-		for(i=0;i<10;i++)
+		A=this.hF[0];	// valor inicial de A
+		for(i=0;i<MAX_ITERATIONS;i++)
 		{
-
-			for(j=0;j<this.L;j++)	F.SetValue(j,Math.pow(A,j+1));	// Cargo F
-			for(j=0;j<this.L;j++)	J.SetValue(j,Math.pow(A,j  ));	// Cargo J
-
-			A=A+hF.NewSub(F).Dot(J)/J.Norm2();
-			//System.out.print (A+"\n");
+			// r_j=hF_j-A^(j+1),  d(A^(j+1))/dA=(j+1)A^j
+			num=0;
+			den=0;
+			pow=1;	// A^j
+			for(j=0;j<this.L;j++)
+			{
+				jac=(j+1)*pow;
+				res=this.hF[j]-pow*A;
+				num=num+res*jac;
+				den=den+jac*jac;
+				pow=pow*A;
+			}
+			dA=num/den;
+			A=A+dA;
+
+			if( !(Math.abs(dA)>TOLERANCE*Math.abs(A)) )	break;
 		}
 		////////////////////////////////////////////////////////////////////////
 		// Q
@@ -178,5 +206,5 @@ public class PdsKalman1DTool {
 		return this.D;
 		
 	}
- 
+
 }
@@ -0,0 +1,463 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package net.sourceforge.pdsplibj.pdsdf;
+
+import  net.sourceforge.pdsplibj.pdsra.PdsMatrix;
+import  net.sourceforge.pdsplibj.pdsra.PdsVector;
+
+/**
+ * Esta classe implementa um filtro Kalman de estado multidimensional
+ * {@latex.inline $X_k$} (Nx elementos) e entrada multidimensional
+ * {@latex.inline $Z_k$} (Nz elementos).
+ *
+ * <br><br>
+ * O filtro usa o modelo de fonte ideal e de fonte real:<br>
+ * <center>{@latex.ilb %preamble{\\usepackage{amssymb}} %resolution{150} 
+ * $X_k =F X_{k-1} + U_k \\qquad Z_k=H X_k + V_k$
+ * }</center>
+ * <br>
+ * onde {@latex.inline $U_k$} tem covariância Q e {@latex.inline $V_k$} tem
+ * covariância R. Todas as matrizes e vetores de trabalho são criados no
+ * construtor, então {@link #Predict()} e {@link #Update(PdsVector)} não criam
+ * objetos novos. A covariância é corrigida na forma de Joseph e mantida
+ * simétrica, para que os erros de arredondamento não a estraguem depois de
+ * muitas amostras.
+ *
+ * <br><br>
+ * Com Nx=3 e Nz=1 pode-se usar o modelo de aceleração constante
+ * {@latex.inline $X=[s,v,a]^T$} (deslocamento, velocidade e aceleração),
+ * onde só a aceleração é medida, com {@link #SetConstantAcceleration(double,double)}.
+ * Assim o mesmo filtro entrega a aceleração filtrada, a velocidade e o
+ * deslocamento, usando o intervalo de tempo real entre as amostras.
+ *
+ *  <br><br>Para usar esta classe é necessário importar-la com:
+ *  <pre>  
+	import net.sourceforge.pdsplibj.pdsdf.PdsKalmanND; 
+ *  </pre>
+ *
+ *  <br>Para usar este filtro pode-se usar este código de exemplo:
+ *  <pre>  
+    PdsKalmanND filtro=new PdsKalmanND(3,1);
+    filtro.SetR(R);
+
+    filtro.SetConstantAcceleration(dt,q);
+    filtro.EvaluateValue(Zk);
+    s=filtro.GetState(0);	v=filtro.GetState(1);	a=filtro.GetState(2);
+ *  </pre>
+ *
+ * @version 0.01
+ * @see <a href="http://pdsplib.sourceforge.net"> PDS Project Libraries in Java </a>
+ * @see PdsKalman1D
+ */
+public class PdsKalmanND {
+	private int Nx;
+	private int Nz;
+
+	//valores iterativos
+	private PdsVector X;
+	private PdsMatrix P;
+
+	//Variaveis do sistema
+	private PdsMatrix F;
+	private PdsMatrix Ft;
+	private PdsMatrix H;
+	private PdsMatrix Ht;
+	private PdsMatrix Q;
+	private PdsMatrix R;
+
+	//Espaço de trabalho
+	private PdsVector Xtmp;	// Nx
+	private PdsVector Y;	// Nz, inovação Z-HX
+	private PdsMatrix FP;	// Nx x Nx
+	private PdsMatrix HP;	// Nz x Nx
+	private PdsMatrix S;	// Nz x Nz
+	private PdsMatrix K;	// Nx x Nz
+	private PdsMatrix IKH;	// Nx x Nx, I-KH
+	private double[] L;	// fator de Cholesky de S
+	private double[] Col;	// uma coluna de HP
+
+	/**
+	 * Este construtor cria um filtro KALMAN multidimensional.
+	 *
+	 * Inicialmente F e H são identidades (até onde possam), Q e R são
+	 * zero, {@latex.inline $X$} é zero e P é zero.
+	 *
+	 * @param Nx É o número de elementos do estado {@latex.inline $X_k$}.
+	 * @param Nz É o número de elementos da entrada {@latex.inline $Z_k$}.
+	 **/
+	public PdsKalmanND(int Nx,int Nz) {
+		this.Nx=Nx;
+		this.Nz=Nz;
+
+		this.X=new PdsVector(Nx);
+		this.P=new PdsMatrix(Nx,Nx);
+
+		this.F=new PdsMatrix(Nx,Nx);
+		this.Ft=new PdsMatrix(Nx,Nx);
+		this.H=new PdsMatrix(Nz,Nx);
+		this.Ht=new PdsMatrix(Nx,Nz);
+		this.Q=new PdsMatrix(Nx,Nx);
+		this.R=new PdsMatrix(Nz,Nz);
+
+		this.F.InitIdentity(1.0);
+		this.Ft.InitIdentity(1.0);
+		this.H.InitIdentity(1.0);
+		this.Ht.InitIdentity(1.0);
+
+		this.Xtmp=new PdsVector(Nx);
+		this.Y=new PdsVector(Nz);
+		this.FP=new PdsMatrix(Nx,Nx);
+		this.HP=new PdsMatrix(Nz,Nx);
+		this.S=new PdsMatrix(Nz,Nz);
+		this.K=new PdsMatrix(Nx,Nz);
+		this.IKH=new PdsMatrix(Nx,Nx);
+		this.L=new double[Nz*Nz];
+		this.Col=new double[Nz];
+	}
+
+	/**
+	 * Este método muda a matriz de transição de estado F (Nx x Nx).
+	 * @param MatSrc É a nova matriz F; é copiada.
+	 **/
+	public void SetF(PdsMatrix MatSrc) {
+		this.F.InitMatrix(MatSrc);
+		this.Ft.InitMatrix(MatSrc);
+		this.Ft.Transpose();
+	}
+
+	/**
+	 * Este método muda a matriz de observação H (Nz x Nx).
+	 * @param MatSrc É a nova matriz H; é copiada.
+	 **/
+	public void SetH(PdsMatrix MatSrc) {
+		int i,j;
+
+		this.H.InitMatrix(MatSrc);
+		for(i=0;i<this.Nz;i++)
+			for(j=0;j<this.Nx;j++)
+				this.Ht.SetValue(j,i,this.H.GetValue(i,j));
+	}
+
+	/**
+	 * Este método muda a covariância Q (Nx x Nx) de {@latex.inline $U_k$}.
+	 * @param MatSrc É a nova matriz Q; é copiada.
+	 **/
+	public void SetQ(PdsMatrix MatSrc) {
+		this.Q.InitMatrix(MatSrc);
+	}
+
+	/**
+	 * Este método muda a covariância R (Nz x Nz) de {@latex.inline $V_k$}.
+	 * @param MatSrc É a nova matriz R; é copiada.
+	 **/
+	public void SetR(PdsMatrix MatSrc) {
+		this.R.InitMatrix(MatSrc);
+	}
+
+	/**
+	 * Este método muda a covariância R de {@latex.inline $V_k$} para
+	 * {@latex.inline $R I$}.
+	 * @param Val É a variância de cada elemento de {@latex.inline $V_k$}.
+	 **/
+	public void SetR(double Val) {
+		this.R.InitIdentity(Val);
+	}
+
+	/**
+	 * Este método coloca o modelo de aceleração constante, para Nx=3
+	 * ({@latex.inline $X=[s,v,a]^T$}) e Nz=1 ({@latex.inline $Z=a+V$}),
+	 * com um intervalo dt entre a amostra anterior e a atual.
+	 * <br>
+	 * <center>{@latex.ilb %preamble{\\usepackage{amssymb}} %resolution{150} 
+	 * $F=\\left[\\begin{array}{ccc}1 & dt & dt^2/2\\\\ 0 & 1 & dt\\\\ 0 & 0 & 1\\end{array}\\right]
+	 * \\qquad H=[0\\ 0\\ 1]$
+	 * }</center>
+	 * e Q é a covariância de uma sobreaceleração (jerk) branca de
+	 * intensidade q integrada durante dt:
+	 * <center>{@latex.ilb %preamble{\\usepackage{amssymb}} %resolution{150} 
+	 * $Q=q\\left[\\begin{array}{ccc}dt^5/20 & dt^4/8 & dt^3/6\\\\ dt^4/8 & dt^3/3 & dt^2/2\\\\ dt^3/6 & dt^2/2 & dt\\end{array}\\right]$
+	 * }</center>
+	 * Deve ser chamado antes de cada avaliação se dt muda.
+	 * @param dt É o intervalo de tempo, em segundos.
+	 * @param q É a intensidade da sobreaceleração, em {@latex.inline $(m/s^3)^2/s$}.
+	 * @return Retorna false (e não faz nada) se Nx não é 3 ou Nz não é 1.
+	 **/
+	public boolean SetConstantAcceleration(double dt,double q) {
+		double dt2,dt3,dt4,dt5;
+
+		if( (this.Nx!=3)||(this.Nz!=1) )	return false;
+
+		dt2=dt*dt;
+		dt3=dt2*dt;
+		dt4=dt3*dt;
+		dt5=dt4*dt;
+
+		this.F.InitIdentity(1.0);
+		this.F.SetValue(0,1,dt);
+		this.F.SetValue(0,2,dt2/2);
+		this.F.SetValue(1,2,dt);
+
+		this.Ft.InitIdentity(1.0);
+		this.Ft.SetValue(1,0,dt);
+		this.Ft.SetValue(2,0,dt2/2);
+		this.Ft.SetValue(2,1,dt);
+
+		this.H.SetValue(0,0,0);
+		this.H.SetValue(0,1,0);
+		this.H.SetValue(0,2,1);
+		this.Ht.SetValue(0,0,0);
+		this.Ht.SetValue(1,0,0);
+		this.Ht.SetValue(2,0,1);
+
+		this.Q.SetValue(0,0,q*dt5/20);
+		this.Q.SetValue(0,1,q*dt4/8);
+		this.Q.SetValue(0,2,q*dt3/6);
+		this.Q.SetValue(1,0,q*dt4/8);
+		this.Q.SetValue(1,1,q*dt3/3);
+		this.Q.SetValue(1,2,q*dt2/2);
+		this.Q.SetValue(2,0,q*dt3/6);
+		this.Q.SetValue(2,1,q*dt2/2);
+		this.Q.SetValue(2,2,q*dt);
+
+		return true;
+	}
+
+	/**
+	 * Este método faz a predição:
+	 * {@latex.inline $X^-_k=F X_{k-1}$} e {@latex.inline $P^-_k=F P_{k-1} F^T+Q$}.
+	 **/
+	public void Predict() {
+		PdsVector tmp;
+
+		PdsMatrix.MulInto(this.Xtmp,this.F,this.X);
+		tmp=this.X;
+		this.X=this.Xtmp;
+		this.Xtmp=tmp;
+
+		PdsMatrix.MulInto(this.FP,this.F,this.P);
+		PdsMatrix.MulInto(this.P,this.FP,this.Ft);
+		this.P.Add(this.Q);
+		this.Symmetrize();
+	}
+
+	// P=(P+P^T)/2.
+	private void Symmetrize() {
+		int i,j;
+		double v;
+
+		for(i=0;i<this.Nx;i++)
+		{
+			for(j=i+1;j<this.Nx;j++)
+			{
+				v=0.5*(this.P.GetValue(i,j)+this.P.GetValue(j,i));
+				this.P.SetValue(i,j,v);
+				this.P.SetValue(j,i,v);
+			}
+		}
+	}
+
+	// P=(I-KH) P (I-KH)^T + K R K^T (forma de Joseph). Só o triângulo de
+	// cima é calculado e copiado no de baixo, então P sai simétrica.
+	private void CorrectCovariance() {
+		int i,j,k,a,b,nx,nz;
+		double sum,kr;
+
+		nx=this.Nx;
+		nz=this.Nz;
+
+		// IKH=I-KH
+		PdsMatrix.MulInto(this.IKH,this.K,this.H);
+		for(i=0;i<nx;i++)
+		{
+			for(j=0;j<nx;j++)	this.IKH.SetValue(i,j,((i==j)?1.0:0.0)-this.IKH.GetValue(i,j));
+		}
+
+		// FP=(I-KH) P
+		PdsMatrix.MulInto(this.FP,this.IKH,this.P);
+
+		for(i=0;i<nx;i++)
+		{
+			for(j=i;j<nx;j++)
+			{
+				sum=0;
+				for(k=0;k<nx;k++)	sum=sum+this.FP.GetValue(i,k)*this.IKH.GetValue(j,k);
+				for(a=0;a<nz;a++)
+				{
+					kr=0;
+					for(b=0;b<nz;b++)	kr=kr+this.R.GetValue(a,b)*this.K.GetValue(j,b);
+					sum=sum+this.K.GetValue(i,a)*kr;
+				}
+				this.P.SetValue(i,j,sum);
+				this.P.SetValue(j,i,sum);
+			}
+		}
+	}
+
+	/**
+	 * Este método faz a correção com a entrada Z:
+	 * <center>{@latex.ilb %preamble{\\usepackage{amssymb}} %resolution{150} 
+	 * $K=P^- H^T (H P^- H^T+R)^{-1} \\qquad X=X^-+K(Z-HX^-) \\qquad P=(I-KH) P^- (I-KH)^T+K R K^T$
+	 * }</center>
+	 * @param Z É a entrada, com Nz elementos.
+	 * @return Retorna false se {@latex.inline $H P^- H^T+R$} não é definida
+	 *         positiva (e não faz a correção).
+	 **/
+	public boolean Update(PdsVector Z) {
+		int i,j,k,nz,nx;
+		double sum;
+
+		nz=this.Nz;
+		nx=this.Nx;
+
+		// Y=Z-HX
+		PdsMatrix.MulInto(this.Y,this.H,this.X);
+		for(i=0;i<nz;i++)	this.Y.SetValue(i,Z.GetValue(i)-this.Y.GetValue(i));
+
+		// S=H P H^T + R
+		PdsMatrix.MulInto(this.HP,this.H,this.P);
+		PdsMatrix.MulInto(this.S,this.HP,this.Ht);
+		this.S.Add(this.R);
+
+		// Cholesky S=L L^T
+		for(i=0;i<nz;i++)
+		{
+			for(j=0;j<=i;j++)
+			{
+				sum=this.S.GetValue(i,j);
+				for(k=0;k<j;k++)	sum=sum-this.L[i*nz+k]*this.L[j*nz+k];
+				if(i==j)
+				{
+					if(!(sum>0))	return false;
+					this.L[i*nz+i]=Math.sqrt(sum);
+				}
+				else	this.L[i*nz+j]=sum/this.L[j*nz+j];
+			}
+		}
+
+		// K^T=S^-1 (H P), coluna por coluna (S e P são simétricas).
+		for(j=0;j<nx;j++)
+		{
+			for(i=0;i<nz;i++)
+			{
+				sum=this.HP.GetValue(i,j);
+				for(k=0;k<i;k++)	sum=sum-this.L[i*nz+k]*this.Col[k];
+				this.Col[i]=sum/this.L[i*nz+i];
+			}
+			for(i=nz-1;i>=0;i--)
+			{
+				sum=this.Col[i];
+				for(k=i+1;k<nz;k++)	sum=sum-this.L[k*nz+i]*this.Col[k];
+				this.Col[i]=sum/this.L[i*nz+i];
+			}
+			for(i=0;i<nz;i++)	this.K.SetValue(j,i,this.Col[i]);
+		}
+
+		// X=X+K Y
+		PdsMatrix.MulInto(this.Xtmp,this.K,this.Y);
+		this.X.Add(this.Xtmp);
+
+		this.CorrectCovariance();
+
+		return true;
+	}
+
+	/**
+	 * Este método avalia o filtro com uma entrada escalar (Nz=1): faz a
+	 * predição e a correção. A correção usa {@latex.inline $S=HP^-H^T+R$}
+	 * escalar, sem a fatoração de Cholesky.
+	 * @param ZNow É a entrada do filtro.
+	 * @return Retorna false se Nz não é 1 ou se S não é positivo; nesse caso
+	 *         só a predição foi feita.
+	 **/
+	public boolean EvaluateValue(double ZNow) {
+		int j;
+		double s,y;
+
+		this.Predict();
+		if(this.Nz!=1)	return false;
+
+		PdsMatrix.MulInto(this.Y,this.H,this.X);
+		y=ZNow-this.Y.GetValue(0);
+
+		PdsMatrix.MulInto(this.HP,this.H,this.P);
+		PdsMatrix.MulInto(this.S,this.HP,this.Ht);
+		s=this.S.GetValue(0,0)+this.R.GetValue(0,0);
+		if(!(s>0))	return false;
+
+		for(j=0;j<this.Nx;j++)
+		{
+			this.K.SetValue(j,0,this.HP.GetValue(0,j)/s);
+			this.X.SetValue(j,this.X.GetValue(j)+this.K.GetValue(j,0)*y);
+		}
+
+		this.CorrectCovariance();
+
+		return true;
+	}
+
+	/**
+	 * Este método retorna um elemento do estado {@latex.inline $\\hat{X}_k$}.
+	 * @param id É o índice do elemento, de 0 a Nx-1.
+	 * @return Retorna o elemento id do estado.
+	 **/
+	public double GetState(int id) {
+		return this.X.GetValue(id);
+	}
+
+	/**
+	 * Este método muda um elemento do estado {@latex.inline $\\hat{X}_k$},
+	 * sem mudar a covariância. Serve para impor um valor conhecido, por
+	 * exemplo velocidade zero quando o sensor está parado.
+	 * @param id É o índice do elemento, de 0 a Nx-1.
+	 * @param Val É o novo valor do elemento.
+	 **/
+	public void SetState(int id,double Val) {
+		this.X.SetValue(id,Val);
+	}
+
+	/**
+	 * Este método retorna um elemento da covariância {@latex.inline $P_k$}.
+	 * @param idlin É a linha, de 0 a Nx-1.
+	 * @param idcol É a coluna, de 0 a Nx-1.
+	 * @return Retorna o elemento (idlin,idcol) de {@latex.inline $P_k$}.
+	 **/
+	public double GetCurrentP(int idlin,int idcol) {
+		return this.P.GetValue(idlin,idcol);
+	}
+
+	/**
+	 * Este método inicia o estado {@latex.inline $\\hat{X}$} e a covariância P.
+	 * @param X0 É o estado inicial, com Nx elementos; é copiado.
+	 * @param P0 É a covariância inicial (Nx x Nx); é copiada.
+	 **/
+	public void Init(PdsVector X0,PdsMatrix P0) {
+		this.X.InitVector(X0);
+		this.P.InitMatrix(P0);
+	}
+
+	/**
+	 * Este método inicia o estado {@latex.inline $\\hat{X}$} em zero e a
+	 * covariância em {@latex.inline $P_0 I$}.
+	 * @param P0 É a variância inicial de cada elemento do estado.
+	 **/
+	public void Init(double P0) {
+		this.X.InitValue(0);
+		this.P.InitIdentity(P0);
+	}
+}
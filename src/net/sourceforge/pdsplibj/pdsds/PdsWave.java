@@ -33,6 +33,24 @@ package net.sourceforge.pdsplibj.pdsds;
  *  value=fonte.GetData();
  * </pre>
  * <br>
+ * Com {@link #SetFrequency(double)} o gerador passa ao modo de oscilador
+ * controlado numericamente (NCO): a posição na tabela é uma fase em ponto
+ * fixo, medida em elementos da tabela com 32 bits de fração (um ciclo =
+ * {@latex.inline $Nel \\cdot 2^{32}$}), que avança a frequência escolhida em
+ * cada amostra, e o valor entre dois elementos da tabela é interpolado (ver
+ * {@link #SetInterpolation(int)}). Assim a frequência não depende do número
+ * de elementos e pode ser mudada sem refazer a tabela. Vários geradores podem usar a mesma tabela (ver
+ * {@link #PdsWave(PdsWave)}), cada um com a sua fase e frequência.
+ * <pre>
+ *  PdsWave seno=new PdsWave(1024);
+ *  for(int i=0;i&lt;1024;i++)  seno.SetData(Math.sin(2*Math.PI*i/1024),i);
+ *
+ *  PdsWave a=new PdsWave(seno);    // mesma tabela
+ *  a.SetInterpolation(PdsWave.INTERP_CUBIC);
+ *  a.SetFrequency(50.0/1000.0);    // 50 Hz com 1000 amostras por segundo
+ *  a.Render(buffer,256);
+ * </pre>
+ * <br>
  *  <center><img src="{@docRoot}/doc/imagenes/PdsWave.png" alt="Señal de salida y[n]"></center><br>
  *
  * @author Fernando Pujaico Rivera <a href="mailto:fernando.pujaico.rivera@gmail.com">fernando.pujaico.rivera@gmail.com</a>
@@ -42,6 +60,16 @@ package net.sourceforge.pdsplibj.pdsds;
  */
 public class PdsWave {
 
+    /** Sem interpolação: o elemento da tabela antes da fase. */
+    public static final int INTERP_NONE=0;
+    /** Interpolação linear entre os dois elementos vizinhos da fase. */
+    public static final int INTERP_LINEAR=1;
+    /** Interpolação cúbica (Catmull-Rom) com os quatro elementos vizinhos da fase. */
+    public static final int INTERP_CUBIC=2;
+
+    // Um elemento da tabela na fase em ponto fixo, 2^32.
+    private static final double PHASE_ONE=4294967296.0;
+
     // Um arreglo de Nel elementos.
     double[] V;
 
@@ -54,6 +82,19 @@ public class PdsWave {
     // Ultimo valor entregado pelo gerador de ondas PdsWave.
     double x;
 
+    // true no modo NCO (depois de SetFrequency).
+    boolean Nco;
+
+    // Fase do modo NCO: elemento nos 32 bits de cima e fração nos de baixo,
+    // 0<=Phase<Nel*2^32.
+    long Phase;
+
+    // Incremento da fase por amostra, 0<=Inc<Nel*2^32.
+    long Inc;
+
+    // Interpolação do modo NCO: INTERP_NONE, INTERP_LINEAR ou INTERP_CUBIC.
+    int Interp;
+
     /**
      * Este método é o construtor e cria una classe de tipo PdsWave com Nel elementos.
      * <br>
@@ -66,6 +107,31 @@ public class PdsWave {
         this.V=new double[this.Nel];
         this.ID=0;
         this.x=0;
+        this.Nco=false;
+        this.Phase=0;
+        this.Inc=0;
+        this.Interp=INTERP_LINEAR;
+    }
+
+    /**
+     * Este método é o construtor que cria um gerador com a mesma tabela de
+     * Src: os elementos não são copiados, então {@link #SetData(double v,int n)}
+     * em um muda a saída dos dois. A posição, a fase, a frequência e a
+     * interpolação são copiadas e depois são independentes.
+     * <br>
+     * Vários geradores podem ler a mesma tabela em threads diferentes, sem
+     * travas, desde que ninguém chame SetData ao mesmo tempo.
+     * @param Src O gerador com a tabela a usar.
+     */
+    public PdsWave(PdsWave Src){
+        this.Nel=Src.Nel;
+        this.V=Src.V;
+        this.ID=Src.ID;
+        this.x=Src.x;
+        this.Nco=Src.Nco;
+        this.Phase=Src.Phase;
+        this.Inc=Src.Inc;
+        this.Interp=Src.Interp;
     }
 
     /**
@@ -82,6 +148,82 @@ public class PdsWave {
         }
     }
 
+    /**
+     * Escolhe a frequência e passa ao modo NCO.
+     * <br>
+     * A frequência é normalizada: ciclos da tabela por amostra, ou seja
+     * {@latex.inline $f/f_s$}. É arredondada para um múltiplo de
+     * {@latex.inline $2^{-32}/Nel$}, então os múltiplos de 1/Nel são exatos:
+     * a frequência 1/Nel com {@link #INTERP_NONE} repete o modo normal. Só a
+     * parte fracionária importa e um valor negativo percorre a tabela ao
+     * contrário. Na primeira chamada, a fase começa no elemento que seria o
+     * próximo no modo normal.
+     * @param f A frequência normalizada.
+     */
+    public void SetFrequency(double f){
+        long cycle=((long)this.Nel)<<32;
+
+        f=f-Math.floor(f);
+        this.Inc=(long)Math.rint(f*cycle);
+        if(this.Inc>=cycle) this.Inc=this.Inc-cycle;
+        if(!this.Nco)
+        {
+            this.Phase=((long)this.ID)<<32;
+            this.Nco=true;
+        }
+    }
+
+    /**
+     * Obtém a frequência normalizada do modo NCO, em ciclos por amostra.
+     *
+     * @return Retorna a frequência, em [0,1), ou 0 fora do modo NCO.
+     */
+    public double GetFrequency(){
+        if(!this.Nco)   return 0;
+        return this.Inc/(PHASE_ONE*this.Nel);
+    }
+
+    /**
+     * Muda a fase do modo NCO.
+     *
+     * @param p A fase em ciclos; só a parte fracionária importa.
+     */
+    public void SetPhase(double p){
+        long cycle=((long)this.Nel)<<32;
+
+        p=p-Math.floor(p);
+        this.Phase=(long)Math.rint(p*cycle);
+        if(this.Phase>=cycle)   this.Phase=this.Phase-cycle;
+    }
+
+    /**
+     * Obtém a fase do modo NCO, a da próxima amostra.
+     *
+     * @return Retorna a fase em ciclos, em [0,1).
+     */
+    public double GetPhase(){
+        return this.Phase/(PHASE_ONE*this.Nel);
+    }
+
+    /**
+     * Escolhe a interpolação do modo NCO. O padrão é {@link #INTERP_LINEAR}.
+     * Outros valores não fazem nada.
+     *
+     * @param mode {@link #INTERP_NONE}, {@link #INTERP_LINEAR} ou {@link #INTERP_CUBIC}.
+     */
+    public void SetInterpolation(int mode){
+        if((mode>=INTERP_NONE)&&(mode<=INTERP_CUBIC))   this.Interp=mode;
+    }
+
+    /**
+     * Obtém a interpolação do modo NCO.
+     *
+     * @return Retorna {@link #INTERP_NONE}, {@link #INTERP_LINEAR} ou {@link #INTERP_CUBIC}.
+     */
+    public int GetInterpolation(){
+        return this.Interp;
+    }
+
     /**
      * Obtém um valor na saida e itera o gerador de ondas.
      *
@@ -89,6 +231,13 @@ public class PdsWave {
      */
     public double GetValue(){
 
+        if(this.Nco)
+        {
+            this.x=Sample(this.V,this.Nel,this.Interp,this.Phase);
+            this.Phase=Step(this.Phase,this.Inc,((long)this.Nel)<<32);
+            return this.x;
+        }
+
         this.x=this.V[this.ID];
 
         this.ID=this.ID+1;
@@ -97,6 +246,73 @@ public class PdsWave {
         return this.x;
     }
 
+    /**
+     * Escreve os próximos n valores do gerador em Dst[0] até Dst[n-1], os
+     * mesmos que n chamadas de {@link #GetValue()}, sem criar objetos.
+     *
+     * @param Dst O vetor de destino.
+     * @param n O número de valores.
+     */
+    public void Render(double[] Dst,int n){
+        int i,id,nel;
+        long phase,inc,lim;
+        double[] v;
+
+        if(n<=0)    return;
+
+        v=this.V;
+        nel=this.Nel;
+
+        if(!this.Nco)
+        {
+            id=this.ID;
+            for(i=0;i<n;i++)
+            {
+                Dst[i]=v[id];
+                id=id+1;
+                if(id==nel)	id=0;
+            }
+            this.ID=id;
+        }
+        else
+        {
+            phase=this.Phase;
+            inc=this.Inc;
+            // Passando de lim a fase dá a volta (ver Step).
+            lim=(((long)nel)<<32)-inc;
+            switch(this.Interp)
+            {
+                case INTERP_NONE:
+                    for(i=0;i<n;i++)
+                    {
+                        Dst[i]=v[(int)(phase>>>32)];
+                        if(phase>=lim)  phase=phase-lim;
+                        else            phase=phase+inc;
+                    }
+                    break;
+                case INTERP_LINEAR:
+                    for(i=0;i<n;i++)
+                    {
+                        Dst[i]=Linear(v,nel,phase);
+                        if(phase>=lim)  phase=phase-lim;
+                        else            phase=phase+inc;
+                    }
+                    break;
+                default:
+                    for(i=0;i<n;i++)
+                    {
+                        Dst[i]=Cubic(v,nel,phase);
+                        if(phase>=lim)  phase=phase-lim;
+                        else            phase=phase+inc;
+                    }
+                    break;
+            }
+            this.Phase=phase;
+        }
+
+        this.x=Dst[n-1];
+    }
+
     /**
      * Obtém o ultimo valor entregado na saída do gerador de ondas PdsWave.
      *
@@ -105,4 +321,46 @@ public class PdsWave {
     public double GetLastValue(){
         return this.x;
     }
+
+    // Avança a fase um incremento, módulo cycle, sem passar de 2^63.
+    private static long Step(long phase,long inc,long cycle){
+        if(phase>=cycle-inc)    return phase-(cycle-inc);
+        else                    return phase+inc;
+    }
+
+    // Valor da tabela V de nel elementos na fase phase.
+    private static double Sample(double[] V,int nel,int mode,long phase){
+        switch(mode)
+        {
+            case INTERP_NONE:   return V[(int)(phase>>>32)];
+            case INTERP_LINEAR: return Linear(V,nel,phase);
+            default:            return Cubic(V,nel,phase);
+        }
+    }
+
+    // A fase dá o elemento i (32 bits de cima) e a fração entre i e i+1
+    // (32 bits de baixo).
+    private static double Linear(double[] V,int nel,long phase){
+        int i=(int)(phase>>>32);
+        int i1=(i+1==nel)?0:i+1;
+        double f=(phase&0xFFFFFFFFL)*(1.0/PHASE_ONE);
+        return V[i]+f*(V[i1]-V[i]);
+    }
+
+    // Catmull-Rom entre V[i] e V[i+1], com V[i-1] e V[i+2]; a tabela é
+    // cíclica, também com menos de 4 elementos.
+    private static double Cubic(double[] V,int nel,long phase){
+        int i=(int)(phase>>>32);
+        int i0=(i==0)?nel-1:i-1;
+        int i1=i+1;
+        int i2=i+2;
+        if(i1>=nel) i1=i1-nel;
+        while(i2>=nel)  i2=i2-nel;
+        double f=(phase&0xFFFFFFFFL)*(1.0/PHASE_ONE);
+        double y0=V[i0],y1=V[i],y2=V[i1],y3=V[i2];
+        double c1=0.5*(y2-y0);
+        double c2=y0-2.5*y1+2.0*y2-0.5*y3;
+        double c3=0.5*(y3-y0)+1.5*(y1-y2);
+        return ((c3*f+c2)*f+c1)*f+y1;
+    }
 }
@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.pdsextras;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Esta classe implementa o cabeçalho de um arquivo binário de captura de 
+ * sensores (formato PDSC), usado por {@link PdsCaptureWriter} e {@link PdsCaptureReader}.
+ *
+ * <br><br>O arquivo tem um cabeçalho de {@link #GetHeaderBytes()} bytes seguido
+ * de blocos de {@link #GetBlockFrames()} amostras. Todos os números são
+ * little-endian. Cada bloco guarda primeiro os tempos (long, em nanossegundos)
+ * e depois os valores de cada eixo, um eixo após o outro (float ou double):
+ * <pre>
+ *  | t[0..B-1] | eixo0[0..B-1] | eixo1[0..B-1] | ... |
+ * </pre>
+ * O último bloco é completado com zeros; o número real de amostras está no cabeçalho.
+ * <br><br>Cabeçalho (versão 2):
+ * <pre>
+ *   0 int    magic "PDSC"
+ *   4 int    versão
+ *   8 int    tamanho do cabeçalho em bytes
+ *  12 int    número de eixos
+ *  16 int    bytes por valor (4=float, 8=double)
+ *  20 int    amostras por bloco
+ *  24 long   número de amostras
+ *  32 double frequência de amostragem (Hz)
+ *  40 double gravidade descontada
+ *  48 double A, H, Q, R do filtro Kalman, comuns a todos os eixos
+ *  80 double para cada eixo: A, H, Q, R no começo e A, H, Q, R no fim da captura
+ *            (64 bytes por eixo; não existe na versão 1)
+ *            reservado (zeros) até o tamanho do cabeçalho
+ * </pre>
+ * Na versão 1 o cabeçalho tem sempre {@link #HEADER_BYTES} bytes; na versão 2
+ * tem pelo menos isso e é um múltiplo de 64.
+ *
+ * <br>Para usar esta classe é necessário escrever:
+ *  <pre>  import net.sourceforge.pdsplibj.pdsextras.PdsCaptureHeader; </pre>
+ *
+ * @version 0.01
+ * @see <a href="http://pdsplib.sourceforge.net"> PDS Project Libraries in Java </a>
+ */
+public class PdsCaptureHeader {
+	/** Identificador do formato, "PDSC" em little-endian. */
+	public static final int MAGIC = 0x43534450;
+
+	/** Versão do formato escrita por esta classe. */
+	public static final int VERSION = 2;
+
+	/** Tamanho mínimo do cabeçalho em bytes (o tamanho na versão 1). */
+	public static final int HEADER_BYTES = 128;
+
+	/** Número máximo de eixos por amostra. */
+	public static final int MAX_AXES = 64;
+
+	/** Posição do número de amostras no cabeçalho. */
+	static final int FRAMES_OFFSET = 24;
+
+	/** Posição dos parâmetros do filtro Kalman de cada eixo no cabeçalho. */
+	static final int KALMAN_AXES_OFFSET = 80;
+
+	private int Axes;
+	private int SampleBytes;
+	private int BlockFrames;
+	private long Frames;
+	private double SampleRate;
+	private double GravityOffset;
+	private double A;
+	private double H;
+	private double Q;
+	private double R;
+	private double[] KalmanStart;	// A, H, Q, R de cada eixo
+	private double[] KalmanEnd;
+
+	/**
+	 * Este construtor cria um cabeçalho.
+	 *
+	 * @param axes Número de eixos por amostra, de 1 a {@link #MAX_AXES}.
+	 * @param sampleBytes Bytes por valor: 4 (float) ou 8 (double).
+	 * @param blockFrames Amostras por bloco; é arredondado para um múltiplo de 8.
+	 **/
+	public PdsCaptureHeader(int axes,int sampleBytes,int blockFrames) {
+		if(axes<1)					axes=1;
+		if(axes>MAX_AXES)			axes=MAX_AXES;
+		if(sampleBytes!=4)			sampleBytes=8;
+		if(blockFrames<8)			blockFrames=8;
+
+		this.Axes=axes;
+		this.SampleBytes=sampleBytes;
+		this.BlockFrames=(blockFrames+7)&~7;
+		this.Frames=0;
+		this.SampleRate=0;
+		this.GravityOffset=0;
+		this.A=0;
+		this.H=0;
+		this.Q=0;
+		this.R=0;
+		this.KalmanStart=new double[4*axes];
+		this.KalmanEnd=new double[4*axes];
+	}
+
+	/**
+	 * Escreve a frequência de amostragem nominal em Hz.
+	 * @param fs Frequência de amostragem.
+	 **/
+	public void SetSampleRate(double fs) {
+		this.SampleRate=fs;
+	}
+
+	/**
+	 * Escreve o valor de gravidade que foi descontado dos dados.
+	 * @param g Gravidade descontada.
+	 **/
+	public void SetGravityOffset(double g) {
+		this.GravityOffset=g;
+	}
+
+	/**
+	 * Escreve os parâmetros do filtro Kalman usados na captura, os mesmos em
+	 * todos os eixos. Se os parâmetros são diferentes em cada eixo ou mudam
+	 * durante a captura, use {@link #SetKalmanStart(int,double,double,double,double)}
+	 * e {@link #SetKalmanEnd(int,double,double,double,double)}.
+	 *
+	 * @param A Fator do modelo de fonte ideal.
+	 * @param H Fator do modelo de fonte real.
+	 * @param Q Variância de U_k.
+	 * @param R Variância de V_k.
+	 **/
+	public void SetKalman(double A,double H,double Q,double R) {
+		this.A=A;
+		this.H=H;
+		this.Q=Q;
+		this.R=R;
+	}
+
+	/**
+	 * Escreve os parâmetros do filtro Kalman de um eixo no começo da captura.
+	 *
+	 * @param axis Índice do eixo.
+	 * @param A Fator do modelo de fonte ideal.
+	 * @param H Fator do modelo de fonte real.
+	 * @param Q Variância de U_k.
+	 * @param R Variância de V_k.
+	 **/
+	public void SetKalmanStart(int axis,double A,double H,double Q,double R) {
+		SetKalman(this.KalmanStart,axis,A,H,Q,R);
+	}
+
+	/**
+	 * Escreve os parâmetros do filtro Kalman de um eixo no fim da captura.
+	 * São gravados no arquivo por {@link PdsCaptureWriter#Close()}.
+	 *
+	 * @param axis Índice do eixo.
+	 * @param A Fator do modelo de fonte ideal.
+	 * @param H Fator do modelo de fonte real.
+	 * @param Q Variância de U_k.
+	 * @param R Variância de V_k.
+	 **/
+	public void SetKalmanEnd(int axis,double A,double H,double Q,double R) {
+		SetKalman(this.KalmanEnd,axis,A,H,Q,R);
+	}
+
+	private static void SetKalman(double[] dst,int axis,double A,double H,double Q,double R) {
+		dst[4*axis  ]=A;
+		dst[4*axis+1]=H;
+		dst[4*axis+2]=Q;
+		dst[4*axis+3]=R;
+	}
+
+	void SetFrames(long frames) {
+		this.Frames=frames;
+	}
+
+	/** @return Retorna o número de eixos. */
+	public int GetAxes() { return this.Axes; }
+
+	/** @return Retorna o número de bytes por valor (4 ou 8). */
+	public int GetSampleBytes() { return this.SampleBytes; }
+
+	/** @return Retorna o número de amostras por bloco. */
+	public int GetBlockFrames() { return this.BlockFrames; }
+
+	/** @return Retorna o número de amostras do arquivo. */
+	public long GetFrames() { return this.Frames; }
+
+	/** @return Retorna a frequência de amostragem. */
+	public double GetSampleRate() { return this.SampleRate; }
+
+	/** @return Retorna a gravidade descontada. */
+	public double GetGravityOffset() { return this.GravityOffset; }
+
+	/** @return Retorna o parâmetro A do filtro Kalman. */
+	public double GetA() { return this.A; }
+
+	/** @return Retorna o parâmetro H do filtro Kalman. */
+	public double GetH() { return this.H; }
+
+	/** @return Retorna o parâmetro Q do filtro Kalman. */
+	public double GetQ() { return this.Q; }
+
+	/** @return Retorna o parâmetro R do filtro Kalman. */
+	public double GetR() { return this.R; }
+
+	/**
+	 * Este método copia os parâmetros do filtro Kalman de um eixo no começo
+	 * da captura: A, H, Q e R. São zero em arquivos da versão 1.
+	 * @param axis Índice do eixo.
+	 * @param dst Recebe os 4 valores a partir de off.
+	 * @param off Posição do primeiro valor em dst.
+	 **/
+	public void GetKalmanStart(int axis,double[] dst,int off) {
+		System.arraycopy(this.KalmanStart,4*axis,dst,off,4);
+	}
+
+	/**
+	 * Este método copia os parâmetros do filtro Kalman de um eixo no fim
+	 * da captura: A, H, Q e R. São zero em arquivos da versão 1.
+	 * @param axis Índice do eixo.
+	 * @param dst Recebe os 4 valores a partir de off.
+	 * @param off Posição do primeiro valor em dst.
+	 **/
+	public void GetKalmanEnd(int axis,double[] dst,int off) {
+		System.arraycopy(this.KalmanEnd,4*axis,dst,off,4);
+	}
+
+	/**
+	 * Este método retorna o tamanho em bytes do cabeçalho escrito por esta classe.
+	 * @return Retorna o tamanho em bytes do cabeçalho.
+	 **/
+	public int GetHeaderBytes() {
+		return Math.max(HEADER_BYTES,(KALMAN_AXES_OFFSET+64*this.Axes+63)&~63);
+	}
+
+	/**
+	 * Este método retorna o tamanho em bytes de um bloco.
+	 * @return Retorna o tamanho em bytes de um bloco.
+	 **/
+	public int GetBlockBytes() {
+		return this.BlockFrames*(8+this.Axes*this.SampleBytes);
+	}
+
+	/**
+	 * Escreve o cabeçalho em buf, a partir da posição atual, em little-endian.
+	 * @param buf O buffer de destino com pelo menos {@link #GetHeaderBytes()} bytes livres.
+	 **/
+	void Write(ByteBuffer buf) {
+		int start=buf.position();
+		int size=GetHeaderBytes();
+		buf.order(ByteOrder.LITTLE_ENDIAN);
+		buf.putInt(MAGIC);
+		buf.putInt(VERSION);
+		buf.putInt(size);
+		buf.putInt(this.Axes);
+		buf.putInt(this.SampleBytes);
+		buf.putInt(this.BlockFrames);
+		buf.putLong(this.Frames);
+		buf.putDouble(this.SampleRate);
+		buf.putDouble(this.GravityOffset);
+		buf.putDouble(this.A);
+		buf.putDouble(this.H);
+		buf.putDouble(this.Q);
+		buf.putDouble(this.R);
+		for(int a=0;a<this.Axes;a++){
+			for(int k=0;k<4;k++)	buf.putDouble(this.KalmanStart[4*a+k]);
+			for(int k=0;k<4;k++)	buf.putDouble(this.KalmanEnd[4*a+k]);
+		}
+		while(buf.position()<start+size)	buf.put((byte)0);
+	}
+
+	/**
+	 * Lê um cabeçalho de buf, a partir da posição 0.
+	 *
+	 * Os campos não são corrigidos como no construtor: um cabeçalho com
+	 * valores fora do formato, ou um arquivo menor que o número de amostras
+	 * declarado, não é um arquivo PDSC válido.
+	 * @param buf O buffer com o arquivo.
+	 * @return Retorna o cabeçalho, ou null se buf não é um arquivo PDSC válido.
+	 **/
+	static PdsCaptureHeader Read(ByteBuffer buf) {
+		buf.order(ByteOrder.LITTLE_ENDIAN);
+		if(buf.limit()<HEADER_BYTES)			return null;
+		if(buf.getInt(0)!=MAGIC)				return null;
+		int version=buf.getInt(4);
+		if(version<1 || version>VERSION)		return null;
+
+		int headerBytes=buf.getInt(8);
+		int axes=buf.getInt(12);
+		int sampleBytes=buf.getInt(16);
+		int blockFrames=buf.getInt(20);
+		long frames=buf.getLong(FRAMES_OFFSET);
+		if(axes<1 || axes>MAX_AXES)						return null;
+		if(sampleBytes!=4 && sampleBytes!=8)			return null;
+		if(blockFrames<8 || blockFrames%8!=0)			return null;
+		if(frames<0)									return null;
+		if(headerBytes<HEADER_BYTES || headerBytes%8!=0)	return null;
+		if(headerBytes>buf.limit())						return null;
+
+		PdsCaptureHeader h=new PdsCaptureHeader(axes,sampleBytes,blockFrames);
+		if(version>=2 && headerBytes<h.GetHeaderBytes())	return null;
+
+		// O arquivo tem que ter todos os blocos declarados.
+		long blockBytes=(long)blockFrames*(8+axes*sampleBytes);
+		long blocks=(frames+blockFrames-1)/blockFrames;
+		if(blockBytes>Integer.MAX_VALUE)				return null;
+		if(blocks>(buf.limit()-headerBytes)/blockBytes)	return null;
+
+		h.Frames		=frames;
+		h.SampleRate	=buf.getDouble(32);
+		h.GravityOffset	=buf.getDouble(40);
+		h.A				=buf.getDouble(48);
+		h.H				=buf.getDouble(56);
+		h.Q				=buf.getDouble(64);
+		h.R				=buf.getDouble(72);
+		if(version>=2){
+			int pos=KALMAN_AXES_OFFSET;
+			for(int a=0;a<h.Axes;a++){
+				for(int k=0;k<4;k++)	h.KalmanStart[4*a+k]=buf.getDouble(pos+8*k);
+				for(int k=0;k<4;k++)	h.KalmanEnd[4*a+k]=buf.getDouble(pos+32+8*k);
+				pos=pos+64;
+			}
+		}
+		return h;
+	}
+}
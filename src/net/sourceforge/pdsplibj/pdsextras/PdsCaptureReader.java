@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.pdsextras;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Esta classe lê um arquivo binário de captura de sensores no formato
+ * descrito em {@link PdsCaptureHeader}.
+ *
+ * O arquivo é mapeado em memoria (memory-mapped), de jeito que os dados não
+ * são copiados: {@link #GetAxis(int,int)} e {@link #GetTime(int)} retornam
+ * vistas (DoubleBuffer, LongBuffer) diretamente sobre o arquivo. Se o arquivo
+ * foi escrito com um só bloco (blockFrames maior ou igual ao número de
+ * amostras), cada eixo inteiro é uma só vista.
+ *
+ * <br><br>Para usar esta classe é necessário escrever:
+ *  <pre>  import net.sourceforge.pdsplibj.pdsextras.PdsCaptureReader; </pre>
+ * e logo usar um código similar a:
+ *  <pre>
+    PdsCaptureReader L=new PdsCaptureReader("captura.pdsc");
+    for(int b=0;b&lt;L.GetBlocks();b++){
+        LongBuffer   t=L.GetTime(b);
+        DoubleBuffer x=L.GetAxis(b,0);
+        ...
+    }
+    L.Close();
+ *  </pre>
+ * O tamanho máximo do arquivo é de 2 GiB (limite de um MappedByteBuffer).
+ *
+ * @version 0.01
+ * @see <a href="http://pdsplib.sourceforge.net"> PDS Project Libraries in Java </a>
+ * @see PdsCaptureWriter
+ */
+public class PdsCaptureReader {
+	private PdsCaptureHeader Header;
+	private RandomAccessFile File;
+	private MappedByteBuffer Map;
+
+	private int DataOffset;
+	private int BlockBytes;
+	private int BlockFrames;
+	private int SampleBytes;
+	private int Blocks;
+
+	/**
+	 * Este construtor abre e mapeia o arquivo em modo leitura.
+	 *
+	 * @param path_with_filename É o nome do arquivo a ler.
+	 * @throws IOException Se o arquivo não pode ser lido ou não é um arquivo PDSC.
+	 **/
+	public PdsCaptureReader(String path_with_filename) throws IOException {
+		this.File=new RandomAccessFile(path_with_filename,"r");
+		try{
+			FileChannel ch=this.File.getChannel();
+			this.Map=ch.map(FileChannel.MapMode.READ_ONLY,0,ch.size());
+			this.Map.order(ByteOrder.LITTLE_ENDIAN);
+
+			this.Header=PdsCaptureHeader.Read(this.Map);
+			if(this.Header==null)	throw new IOException("Not a PDSC capture file: "+path_with_filename);
+
+			this.DataOffset=this.Map.getInt(8);
+			this.BlockBytes=this.Header.GetBlockBytes();
+			this.BlockFrames=this.Header.GetBlockFrames();
+			this.SampleBytes=this.Header.GetSampleBytes();
+			this.Blocks=(int)((this.Header.GetFrames()+this.BlockFrames-1)/this.BlockFrames);
+
+			if(this.DataOffset+(long)this.Blocks*this.BlockBytes>this.Map.capacity())
+				throw new IOException("Truncated PDSC capture file: "+path_with_filename);
+		}
+		catch(IOException e){
+			this.File.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Este método retorna o cabeçalho do arquivo.
+	 * @return Retorna o cabeçalho do arquivo.
+	 **/
+	public PdsCaptureHeader GetHeader() {
+		return this.Header;
+	}
+
+	/**
+	 * Este método retorna o número de amostras do arquivo.
+	 * @return Retorna o número de amostras do arquivo.
+	 **/
+	public long GetFrames() {
+		return this.Header.GetFrames();
+	}
+
+	/**
+	 * Este método retorna o número de blocos do arquivo.
+	 * @return Retorna o número de blocos do arquivo.
+	 **/
+	public int GetBlocks() {
+		return this.Blocks;
+	}
+
+	/**
+	 * Este método retorna o número de amostras válidas no bloco b.
+	 * @param b É o índice do bloco.
+	 * @return Retorna o número de amostras válidas no bloco b.
+	 **/
+	public int GetBlockLength(int b) {
+		long rest=this.Header.GetFrames()-(long)b*this.BlockFrames;
+		if(rest<0)	return 0;
+		return (int)Math.min(rest,this.BlockFrames);
+	}
+
+	/**
+	 * Este método retorna uma vista sem cópia dos tempos (ns) do bloco b.
+	 * @param b É o índice do bloco.
+	 * @return Retorna os tempos das amostras do bloco b.
+	 **/
+	public LongBuffer GetTime(int b) {
+		return Slice(this.DataOffset+b*this.BlockBytes,8*GetBlockLength(b)).asLongBuffer();
+	}
+
+	/**
+	 * Este método retorna uma vista sem cópia dos valores de um eixo do bloco b.
+	 *
+	 * Só pode ser usado em arquivos com valores double ({@link PdsCaptureHeader#GetSampleBytes()}=8).
+	 * @param b É o índice do bloco.
+	 * @param axis É o índice do eixo.
+	 * @return Retorna os valores do eixo no bloco b, ou null se o arquivo é de float.
+	 **/
+	public DoubleBuffer GetAxis(int b,int axis) {
+		if(this.SampleBytes!=8)	return null;
+		return Slice(AxisOffset(b,axis),8*GetBlockLength(b)).asDoubleBuffer();
+	}
+
+	/**
+	 * Este método retorna uma vista sem cópia dos valores de um eixo do bloco b.
+	 *
+	 * Só pode ser usado em arquivos com valores float ({@link PdsCaptureHeader#GetSampleBytes()}=4).
+	 * @param b É o índice do bloco.
+	 * @param axis É o índice do eixo.
+	 * @return Retorna os valores do eixo no bloco b, ou null se o arquivo é de double.
+	 **/
+	public FloatBuffer GetAxisFloat(int b,int axis) {
+		if(this.SampleBytes!=4)	return null;
+		return Slice(AxisOffset(b,axis),4*GetBlockLength(b)).asFloatBuffer();
+	}
+
+	/**
+	 * Este método retorna o valor de um eixo na amostra n.
+	 * @param n É o índice da amostra.
+	 * @param axis É o índice do eixo.
+	 * @return Retorna o valor do eixo na amostra n.
+	 **/
+	public double GetValue(long n,int axis) {
+		int b=(int)(n/this.BlockFrames);
+		int i=(int)(n%this.BlockFrames);
+		int pos=AxisOffset(b,axis)+i*this.SampleBytes;
+		if(this.SampleBytes==4)	return this.Map.getFloat(pos);
+		else					return this.Map.getDouble(pos);
+	}
+
+	/**
+	 * Este método retorna o tempo (ns) da amostra n.
+	 * @param n É o índice da amostra.
+	 * @return Retorna o tempo da amostra n.
+	 **/
+	public long GetTimeValue(long n) {
+		int b=(int)(n/this.BlockFrames);
+		int i=(int)(n%this.BlockFrames);
+		return this.Map.getLong(this.DataOffset+b*this.BlockBytes+8*i);
+	}
+
+	/**
+	 * Este método fecha o arquivo.
+	 **/
+	public void Close() {
+		try{
+			this.File.close();
+		}
+		catch (Exception e){
+			e.printStackTrace();
+		}
+	}
+
+	private int AxisOffset(int b,int axis) {
+		return this.DataOffset+b*this.BlockBytes+8*this.BlockFrames+axis*this.BlockFrames*this.SampleBytes;
+	}
+
+	private ByteBuffer Slice(int pos,int len) {
+		ByteBuffer d=this.Map.duplicate();
+		d.limit(pos+len);
+		d.position(pos);
+		return d.slice().order(ByteOrder.LITTLE_ENDIAN);
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.pdsextras;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Esta classe escreve um arquivo binário de captura de sensores no formato
+ * descrito em {@link PdsCaptureHeader}.
+ *
+ * As amostras são acumuladas num bloco em memoria e cada bloco completo é
+ * escrito de uma vez com um FileChannel. Ao fechar, o último bloco é escrito
+ * e o cabeçalho é escrito de novo, com o número de amostras e os valores
+ * trocados no {@link PdsCaptureHeader} durante a captura (por exemplo
+ * {@link PdsCaptureHeader#SetKalmanEnd(int,double,double,double,double)}).
+ *
+ * <br><br>Para usar esta classe é necessário escrever:
+ *  <pre>  import net.sourceforge.pdsplibj.pdsextras.PdsCaptureWriter; </pre>
+ * e logo usar um código similar a:
+ *  <pre>
+    PdsCaptureHeader h=new PdsCaptureHeader(3,8,4096);
+    h.SetSampleRate(100.0);
+    PdsCaptureWriter W=new PdsCaptureWriter("captura.pdsc",h);
+    W.WriteFrame(t,x,y,z);
+    ...
+    W.Close();
+ *  </pre>
+ *
+ * @version 0.01
+ * @see <a href="http://pdsplib.sourceforge.net"> PDS Project Libraries in Java </a>
+ * @see PdsCaptureReader
+ */
+public class PdsCaptureWriter {
+	private PdsCaptureHeader Header;
+	private RandomAccessFile File;
+	private FileChannel Channel;
+	private ByteBuffer Block;
+
+	private int Axes;
+	private int SampleBytes;
+	private int BlockFrames;
+	private int Index;	// Amostras no bloco atual
+	private long Frames;
+
+	/**
+	 * Este construtor cria o arquivo e escreve o cabeçalho.
+	 *
+	 * @param path_with_filename É o nome do arquivo a criar.
+	 * @param header É o cabeçalho da captura.
+	 * @throws IOException Se o arquivo não pode ser criado.
+	 **/
+	public PdsCaptureWriter(String path_with_filename,PdsCaptureHeader header) throws IOException {
+		this.Header=header;
+		this.Axes=header.GetAxes();
+		this.SampleBytes=header.GetSampleBytes();
+		this.BlockFrames=header.GetBlockFrames();
+		this.Index=0;
+		this.Frames=0;
+
+		this.File=new RandomAccessFile(path_with_filename,"rw");
+		this.File.setLength(0);
+		this.Channel=this.File.getChannel();
+
+		this.Block=ByteBuffer.allocateDirect(Math.max(header.GetBlockBytes(),header.GetHeaderBytes()));
+		this.Block.order(ByteOrder.LITTLE_ENDIAN);
+
+		header.SetFrames(0);
+		header.Write(this.Block);
+		this.Block.flip();
+		WriteFully(this.Block);
+		this.Block.clear();
+	}
+
+	/**
+	 * Este método escreve uma amostra de 3 eixos.
+	 *
+	 * Se o arquivo tem mais de 3 eixos, os restantes ficam com zero.
+	 * @param t Tempo da amostra em nanossegundos.
+	 * @param x Valor do eixo 0.
+	 * @param y Valor do eixo 1.
+	 * @param z Valor do eixo 2.
+	 * @throws IOException Se houve um erro ao escrever um bloco.
+	 **/
+	public void WriteFrame(long t,double x,double y,double z) throws IOException {
+		this.Block.putLong(8*this.Index,t);
+		if(this.Axes>0)	PutValue(0,x);
+		if(this.Axes>1)	PutValue(1,y);
+		if(this.Axes>2)	PutValue(2,z);
+		NextFrame();
+	}
+
+	/**
+	 * Este método escreve uma amostra com todos os eixos.
+	 *
+	 * @param t Tempo da amostra em nanossegundos.
+	 * @param values Valores dos eixos, {@link PdsCaptureHeader#GetAxes()} valores a partir de off.
+	 * @param off Posição do primeiro valor em values.
+	 * @throws IOException Se houve um erro ao escrever um bloco.
+	 **/
+	public void WriteFrame(long t,double[] values,int off) throws IOException {
+		this.Block.putLong(8*this.Index,t);
+		for(int a=0;a<this.Axes;a++)	PutValue(a,values[off+a]);
+		NextFrame();
+	}
+
+	/**
+	 * Este método retorna o número de amostras escritas.
+	 * @return Retorna o número de amostras escritas.
+	 **/
+	public long GetFrames() {
+		return this.Frames+this.Index;
+	}
+
+	/**
+	 * Este método escreve o último bloco, escreve de novo o cabeçalho e fecha o arquivo.
+	 * @throws IOException Se houve um erro ao escrever.
+	 **/
+	public void Close() throws IOException {
+		try{
+			if(this.Index>0){
+				PadBlock();
+				this.Frames=this.Frames+this.Index;
+				this.Block.position(0);
+				this.Block.limit(this.Header.GetBlockBytes());
+				WriteFully(this.Block);
+				this.Index=0;
+			}
+
+			this.Header.SetFrames(this.Frames);
+			ByteBuffer h=ByteBuffer.allocate(this.Header.GetHeaderBytes());
+			this.Header.Write(h);
+			h.flip();
+			while(h.hasRemaining())	this.Channel.write(h,h.position());
+		}
+		finally{
+			this.File.close();
+		}
+	}
+
+	private void PutValue(int axis,double v) {
+		int pos=8*this.BlockFrames+(axis*this.BlockFrames+this.Index)*this.SampleBytes;
+		if(this.SampleBytes==4)	this.Block.putFloat(pos,(float)v);
+		else					this.Block.putDouble(pos,v);
+	}
+
+	private void NextFrame() throws IOException {
+		this.Index=this.Index+1;
+		if(this.Index==this.BlockFrames){
+			this.Block.position(0);
+			this.Block.limit(this.Header.GetBlockBytes());
+			WriteFully(this.Block);
+			this.Frames=this.Frames+this.BlockFrames;
+			this.Index=0;
+		}
+	}
+
+	// Completa com zeros o resto do último bloco.
+	private void PadBlock() {
+		for(int i=this.Index;i<this.BlockFrames;i++){
+			this.Block.putLong(8*i,0);
+			for(int a=0;a<this.Axes;a++){
+				int pos=8*this.BlockFrames+(a*this.BlockFrames+i)*this.SampleBytes;
+				if(this.SampleBytes==4)	this.Block.putFloat(pos,0);
+				else					this.Block.putDouble(pos,0);
+			}
+		}
+	}
+
+	private void WriteFully(ByteBuffer buf) throws IOException {
+		while(buf.hasRemaining())	this.Channel.write(buf);
+	}
+}
@@ -44,6 +44,14 @@ package net.sourceforge.pdsplibj.pdsra;
  * Para memorias FIFO maiores
  * se implementará a classe PdsBigFifoValue um pouco mais lenta dado que usará
  * alocação dinâmica de memoria. Os métodos serão os mesmos.
+ * <br><br>
+ * Os métodos {@link #GetMean()}, {@link #GetVar()} e {@link #GetCor(int)} usam
+ * somas que são atualizadas em cada escrita e leitura, então não percorrem
+ * a memoria. As somas só começam a ser atualizadas após a primeira chamada
+ * a um destes métodos (ou a {@link #SetLags(int[])}), para que uma FIFO que
+ * só guarda valores (como em PdsFir) não pague esse custo. A autocorrelação
+ * só é incremental para os atrasos escolhidos com {@link #SetLags(int[])};
+ * para outros atrasos GetCor(d) percorre a memoria.
  *
  * @author Fernando Pujaico Rivera <a href="mailto:fernando.pujaico.rivera@gmail.com">fernando.pujaico.rivera@gmail.com</a>
  * @version 0.01
@@ -56,6 +64,19 @@ public class PdsFifoValue {
 	private int IDofLastValueInput;
 	private double[] x;
 
+	// Estatísticas incrementais, sobre y=x-Shift:
+	// S[0]=sum(y), S[1]=sum(y^2), S[2+k]=sum(y_i*y_{i+Lags[k]}),
+	// S[2+L+k]=soma dos Lags[k] y mais antigos e S[2+2L+k] dos Lags[k] mais
+	// novos (L=Lags.length; todos, se há menos elementos).
+	// C[] são as compensações da soma de Kahan de cada S[].
+	private boolean Tracking;
+	private double Shift;
+	private int[] Lags;
+	private double[] S;
+	private double[] C;
+	// Escritas desde o último recalculo exato das somas.
+	private int Updates;
+
 	/**
 	 * Este método é o construtor da classe.
 	 * <br>
@@ -69,6 +90,37 @@ public class PdsFifoValue {
 		this.IDofLastValueInput = -1;
 		this.Elements = 0;
 		this.x=new double[N];
+
+		this.Tracking=false;
+		this.Shift=0;
+		this.Lags=new int[0];
+		this.S=new double[2];
+		this.C=new double[2];
+		this.Updates=0;
+	}
+
+	/**
+	 * Este método escolhe os atrasos d para os quais {@link #GetCor(int)}
+	 * será calculado com somas incrementais, sem percorrer a memoria.
+	 * 
+	 * Cada atraso custa três somas e uma multiplicação a mais em cada escrita,
+	 * e GetCor(d) custa O(1).
+	 * @param lags São os atrasos d, com {@latex.inline $0 < d < N$}.
+	 **/
+	public void SetLags(int[] lags) {
+		int i;
+
+		this.Lags=new int[lags.length];
+		for(i=0;i<lags.length;i++)
+		{
+			if( (lags[i]<=0)||(lags[i]>=this.N) )
+				throw new IllegalArgumentException("O atraso deve estar entre 1 e N-1: "+lags[i]);
+			this.Lags[i]=lags[i];
+		}
+		this.S=new double[2+3*lags.length];
+		this.C=new double[2+3*lags.length];
+
+		this.Resync();
 	}
 	
 	/**
@@ -82,6 +134,12 @@ public class PdsFifoValue {
 	public void WriteValue(double value) {
 		double	TMP=0;
 
+		if(this.Tracking)
+		{
+			if(this.Elements==this.N)	this.RemoveOldest();
+			this.AddNewest(value);
+		}
+
 		// Vou contando a quantidade de elementos na memoria FIFO
 		this.Elements=this.Elements+1;
 		if(this.Elements > this.N)	this.Elements=this.N;
@@ -97,6 +155,108 @@ public class PdsFifoValue {
 		}
 		
 		this.x[this.IDofLastValueInput]=value;
+
+		if(this.Tracking)
+		{
+			this.Updates=this.Updates+1;
+			if(this.Updates>=this.N)	this.Resync();
+		}
+	}
+
+	// Soma de Kahan de v em S[k].
+	private void Accumulate(int k,double v) {
+		double y,t;
+
+		y=v-this.C[k];
+		t=this.S[k]+y;
+		this.C[k]=(t-this.S[k])-y;
+		this.S[k]=t;
+	}
+
+	// Atualiza as somas antes de escrever value como o valor mais novo.
+	private void AddNewest(double value) {
+		double y;
+		int k,d,m,L;
+
+		if(this.Elements==0)	this.Shift=value;
+
+		// Com a FIFO cheia, RemoveOldest() já tirou o mais antigo das somas.
+		m=this.Elements;
+		if(m==this.N)	m=m-1;
+		L=this.Lags.length;
+
+		y=value-this.Shift;
+		this.Accumulate(0,y);
+		this.Accumulate(1,y*y);
+		for(k=0;k<L;k++)
+		{
+			d=this.Lags[k];
+			// O valor que ficará na posição d é hoje o da posição d-1.
+			if(d<=m)	this.Accumulate(2+k,y*(this.GetValue(d-1)-this.Shift));
+
+			this.Accumulate(2+2*L+k,y);
+			if(d<=m)	this.Accumulate(2+2*L+k,-(this.GetValue(d-1)-this.Shift));
+			else		this.Accumulate(2+L+k,y);
+		}
+	}
+
+	// Atualiza as somas antes de tirar o valor mais antigo.
+	private void RemoveOldest() {
+		double y;
+		int k,d,n,L;
+
+		n=this.Elements;
+		L=this.Lags.length;
+		y=this.GetValue(n-1)-this.Shift;
+		this.Accumulate(0,-y);
+		this.Accumulate(1,-y*y);
+		for(k=0;k<L;k++)
+		{
+			d=this.Lags[k];
+			if(d<n)	this.Accumulate(2+k,-y*(this.GetValue(n-1-d)-this.Shift));
+
+			this.Accumulate(2+L+k,-y);
+			if(d<n)	this.Accumulate(2+L+k,this.GetValue(n-1-d)-this.Shift);
+			else	this.Accumulate(2+2*L+k,-y);
+		}
+	}
+
+	// Recalcula as somas percorrendo a memoria, em torno da média atual.
+	// É chamado a cada N escritas para que os erros de arredondamento não
+	// se acumulem; em média custa O(1) por escrita.
+	private void Resync() {
+		double m,y;
+		int i,k,n,L;
+
+		n=this.Elements;
+		L=this.Lags.length;
+
+		m=0;
+		for(i=0;i<n;i++)	m=m+this.GetValue(i);
+		if(n>0)	m=m/n;
+		this.Shift=m;
+
+		for(k=0;k<this.S.length;k++)
+		{
+			this.S[k]=0;
+			this.C[k]=0;
+		}
+		for(i=0;i<n;i++)
+		{
+			y=this.GetValue(i)-m;
+			this.S[0]=this.S[0]+y;
+			this.S[1]=this.S[1]+y*y;
+			for(k=0;k<this.Lags.length;k++)
+			{
+				if(i+this.Lags[k]<n)
+					this.S[2+k]=this.S[2+k]+y*(this.GetValue(i+this.Lags[k])-m);
+				if(i>=n-this.Lags[k])	this.S[2+L+k]=this.S[2+L+k]+y;
+				if(i<this.Lags[k])		this.S[2+2*L+k]=this.S[2+2*L+k]+y;
+			}
+		}
+
+		this.Updates=0;
+		this.Tracking=true;
 	}
 	
 	/**
@@ -139,6 +299,8 @@ public class PdsFifoValue {
 		}
 		else{
 
+			if(this.Tracking)	this.RemoveOldest();
+
 			ID=this.IDofLastValueInput-(this.Elements-1);
 			if(ID<0)	ID=ID+this.N;
 
@@ -181,24 +343,14 @@ public class PdsFifoValue {
 	 * @return Retorna o valor médio de todas as mostras da FIFO.
 	 * */	
 	public double GetMean(){
-		double S;
-		int id,ID;
 		
 		if( this.Elements==0 ){
 			return 0.0;
 		}
 		else{
+			if(!this.Tracking)	this.Resync();
 
-			S=0;
-			for(id=0;id<this.Elements;id++)
-			{
-				ID=this.IDofLastValueInput-id;
-				if(ID<0)	ID=ID+this.N;
-
-				S=S+this.x[ID];
-
-			}
-			return S/(this.Elements*1.0);
+			return this.Shift+this.S[0]/(this.Elements*1.0);
 		}
 	}
 	
@@ -214,26 +366,20 @@ public class PdsFifoValue {
 	 * @return Retorna a variância populacional de todas as mostras da FIFO.
 	 * */	
 	public double GetVar(){
-		double S,m;
-		int id,ID;
+		double m,v;
 		
 		if( this.Elements==0 ){
 			return 0.0;
 		}
 		else{
-	
-			m=this.GetMean();
+			if(!this.Tracking)	this.Resync();
 
-			S=0;
-			for(id=0;id<this.Elements;id++)
-			{
-				ID=this.IDofLastValueInput-id;
-				if(ID<0)	ID=ID+this.N;
+			// Média e variância de y=x-Shift
+			m=this.S[0]/this.Elements;
+			v=this.S[1]/this.Elements-m*m;
 
-				S=S+(this.x[ID]-m)*(this.x[ID]-m);
-
-			}
-			return S/(this.Elements*1.0);
+			if(v<0)	v=0;
+			return v;
 		}
 	}
 
@@ -252,10 +398,11 @@ public class PdsFifoValue {
 	 * @return Retorna a autocorrelação dos elementos da FIFO.
 	 *         Se o número de elementos é zero {@latex.inline $n=0$}, então retorna zero.
 	 *         Se o número de elementos {@latex.inline $n \\leq |d|$}, então retorna zero.
+	 * @see #SetLags(int[])
 	 * */	
 	public double GetCor(int d){
 		double S,m;
-		int id,ID1,ID2;
+		int id,ID1,ID2,k;
 		
 		if (d<0)	d=-d;
 
@@ -263,6 +410,12 @@ public class PdsFifoValue {
 			return 0.0;
 		}
 		else{
+			if(!this.Tracking)	this.Resync();
+
+			for(k=0;k<this.Lags.length;k++)
+			{
+				if(this.Lags[k]==d)	return this.GetCorTracked(k);
+			}
 	
 			m=this.GetMean();
 
@@ -282,6 +435,24 @@ public class PdsFifoValue {
 		}
 	}
 
+	// GetCor(Lags[k]) a partir das somas incrementais, com n > Lags[k].
+	//   sum (y_i-m)(y_{i+d}-m) = S_d - m (A + B) + (n-d) m^2
+	// onde A é a soma de y sem os d valores mais antigos e B sem os d mais novos.
+	private double GetCorTracked(int k) {
+		double m,A,B;
+		int d,n,L;
+
+		d=this.Lags[k];
+		n=this.Elements;
+		L=this.Lags.length;
+		m=this.S[0]/n;
+
+		A=this.S[0]-this.S[2+L+k];
+		B=this.S[0]-this.S[2+2*L+k];
+
+		return (this.S[2+k]-m*(A+B)+(n-d)*m*m)/((n-d)*1.0);
+	}
+
 	/**
 	 * Este método provoca que se usamos uma instância de PdsFifoValue
 	 * num contexto que necessita-se ser String, então esta instância
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.pdsra;
+
+import java.util.concurrent.ForkJoinPool;
+
+/** 
+ * Esta classe guarda o ForkJoinPool usado por todas as operações paralelas
+ * da biblioteca: as de {@link PdsMatrix} e os preenchimentos paralelos de
+ * net.sourceforge.pdsplibj.pdsrv. Assim um processo que usa as duas tem um
+ * só pool.
+ * <br><br>
+ * ForkJoinPool existe a partir do Java 7 e do Android 5.0 (API 21). As
+ * classes que o usam só são carregadas quando uma operação passa do seu
+ * limiar de paralelismo; com o limiar em Long.MAX_VALUE (ou operações
+ * pequenas, como as do filtro Kalman) a biblioteca funciona em versões
+ * anteriores.
+ *
+ * <br><br> Para usar esta classe é necessário escrever:
+ *  <pre>  import net.sourceforge.pdsplibj.pdsra.PdsForkJoin; </pre>
+ *
+ * @version 0.01
+ * @see <a href="http://pdsplib.sourceforge.net"> PDS Project Libraries in Java </a>
+ */
+public final class PdsForkJoin {
+	private static volatile ForkJoinPool Pool=null;
+
+	private PdsForkJoin() {
+	}
+
+	/**
+	 * Este método escolhe o ForkJoinPool usado nas operações paralelas.
+	 * <br>
+	 * Se nunca é chamado, é criado um ForkJoinPool com uma thread por
+	 * processador na primeira operação paralela.
+	 * @param pool É o ForkJoinPool a usar.
+	 **/
+	public static void SetPool(ForkJoinPool pool) {
+		Pool=pool;
+	}
+
+	/**
+	 * Este método retorna o ForkJoinPool das operações paralelas, criando-o
+	 * se ainda não existe.
+	 *
+	 * @return Retorna o pool.
+	 **/
+	public static ForkJoinPool GetPool() {
+		ForkJoinPool p=Pool;
+		if(p==null)
+		{
+			synchronized(PdsForkJoin.class)
+			{
+				if(Pool==null)	Pool=new ForkJoinPool();
+				p=Pool;
+			}
+		}
+		return p;
+	}
+}
@@ -28,17 +28,51 @@ import java.lang.*;
  * Os espaços de memoria são salvados em espaços
  * de memoria contínuos, não tem-se feito alocação dinâmica de memoria
  * para os elementos, isto foi para ganhar em velocidade de execução. 
+ * Todos os elementos estão num só vetor, linha após linha: o elemento
+ * (i,j) está na posição i*Ncol+j.
  * <br>
+ * Para evitar criar matrizes novas em cada operação, pode-se usar
+ * {@link #MulInto(PdsMatrix,PdsMatrix,PdsMatrix)} e {@link #Transpose()}.
+ * <br>
+ * As multiplicações (matriz-matriz e matriz-vetor), TransposeNew e as
+ * operações elemento a elemento dividem as linhas entre as threads de um
+ * ForkJoinPool quando o número de operações passa de
+ * {@link #SetParallelThreshold(long)}, no pool de {@link PdsForkJoin}. O
+ * resultado é o mesmo que o da versão sequencial. O código paralelo fica em
+ * outra classe, carregada só na primeira operação acima do limiar: abaixo
+ * dele PdsMatrix não precisa de ForkJoinPool (Java 7, Android API 21).
  *
  * @author Fernando Pujaico Rivera <a href="mailto:fernando.pujaico.rivera@gmail.com">fernando.pujaico.rivera@gmail.com</a>
- * @version 0.01
+ * @version 0.02
  * @since 2015-05-25
  * @see <a href="http://pdsplib.sourceforge.net"> PDS Project Libraries in Java </a>
  */
 public class PdsMatrix {
 	private int Nlin;
 	private int Ncol;
-	private double[][] M;
+	private double[] M;
+
+	// Lado dos blocos (em elementos) usados na multiplicação.
+	private static final int BLOCK=64;
+	// Tamanho dos blocos onde a transposta deixa de dividir a matriz.
+	private static final int TRANSPOSE_LEAF=16;
+	// Até este número de colunas o produto não usa blocos.
+	private static final int SMALL=8;
+
+	/**
+	 * Número de operações (multiplicações ou elementos) a partir do qual as
+	 * operações são divididas entre threads, por defeito.
+	 */
+	public static final long DEFAULT_PARALLEL_THRESHOLD=1L<<18;
+
+	private static volatile long ParallelThreshold=DEFAULT_PARALLEL_THRESHOLD;
+
+	// Operações de PdsMatrixTask
+	private static final int OP_MUL=0;
+	private static final int OP_TRANSPOSE=1;
+	private static final int OP_ADD=2;
+	private static final int OP_MULVAL=3;
+	private static final int OP_MULVEC=4;
 
 	/**
 	 * Este construtor da classe é necessário inicializar-lo indicando o 
@@ -50,7 +84,7 @@ public class PdsMatrix {
 	public PdsMatrix(int Nlin,int Ncol) {
 		this.Nlin = Nlin;
 		this.Ncol = Ncol;
-		this.M=new double[this.Nlin][this.Ncol];
+		this.M=new double[this.Nlin*this.Ncol];
 		
 		if(M==null){
 			this.Nlin = 0;
@@ -69,18 +103,12 @@ public class PdsMatrix {
 			this.Nlin = MatSrc.Nlin;
 			this.Ncol = MatSrc.Ncol;
 			
-			this.M=new double[this.Nlin][this.Ncol];
+			this.M=MatSrc.M.clone();
 			
 			if(this.M==null){
 				this.Nlin = 0;
 				this.Ncol = 0;
 			}
-
-			for(int i=0; i<this.Nlin;i++){
-				for(int j=0; j<this.Ncol;j++){
-					this.M[i][j]=MatSrc.M[i][j];
-				}
-			}
 		}
 		else{
 			this.Nlin = 0;
@@ -89,6 +117,47 @@ public class PdsMatrix {
 		}
 	}
 
+	/**
+	 * Este método retorna o número de linhas da matriz.
+	 *
+	 * @return Retorna o número de linhas da matriz.
+	 **/
+	public int GetNlin() {
+		return this.Nlin;
+	}
+
+	/**
+	 * Este método retorna o número de colunas da matriz.
+	 *
+	 * @return Retorna o número de colunas da matriz.
+	 **/
+	public int GetNcol() {
+		return this.Ncol;
+	}
+
+	/**
+	 * Este método coloca o número de operações a partir do qual as operações
+	 * de todas as matrizes são divididas entre threads.
+	 * <br>
+	 * Por defeito é {@link #DEFAULT_PARALLEL_THRESHOLD}. Long.MAX_VALUE faz
+	 * que tudo seja sequencial.
+	 * @param ops É o número de operações: Nlin*N*Ncol numa multiplicação,
+	 *            Nlin*Ncol numa operação elemento a elemento.
+	 **/
+	public static void SetParallelThreshold(long ops) {
+		ParallelThreshold=ops;
+	}
+
+	/**
+	 * Este método retorna o número de operações a partir do qual as
+	 * operações são divididas entre threads.
+	 *
+	 * @return Retorna o limiar atual.
+	 **/
+	public static long GetParallelThreshold() {
+		return ParallelThreshold;
+	}
+
 	/**
 	 * Este método inicia toda a matriz com o valor Val
 	 * <br>
@@ -97,9 +166,7 @@ public class PdsMatrix {
 	 **/
 	public void InitValue(double Val) {
 
-		for(int i=0;i<this.Nlin;i++)	
-			for(int j=0;j<this.Ncol;j++)
-				this.M[i][j]=Val;
+		for(int i=0;i<this.M.length;i++)	this.M[i]=Val;
 	}
 	
 	/**
@@ -110,10 +177,10 @@ public class PdsMatrix {
 	 * @param MatSrc É a matriz de fonte de onde se copiarão os dados.
 	 **/
 	public void InitMatrix(PdsMatrix MatSrc) {
-		if(MatSrc==null){		
+		if(MatSrc!=null){		
+			int n=Math.min(this.Ncol,MatSrc.Ncol);
 			for(int i=0;(i<this.Nlin)&&(i<MatSrc.Nlin);i++)	
-				for(int j=0;(j<this.Ncol)&&(j<MatSrc.Ncol);j++)
-					this.M[i][j]=MatSrc.M[i][j];
+				System.arraycopy(MatSrc.M,i*MatSrc.Ncol,this.M,i*this.Ncol,n);
 		}
 	}
 
@@ -130,7 +197,7 @@ public class PdsMatrix {
 	public void SetValue(int idlin,int idcol,double Val) {
 		if( (idlin>=0) && (idlin<this.Nlin) )
 		if( (idcol>=0) && (idcol<this.Ncol) )
-		this.M[idlin][idcol]=Val;
+		this.M[idlin*this.Ncol+idcol]=Val;
 	}
 	
 	/**
@@ -145,7 +212,7 @@ public class PdsMatrix {
 	 **/
 	public double GetValue(int idlin,int idcol) {
 		if( (idlin>=0) && (idlin<this.Nlin) && (idcol>=0) && (idcol<this.Ncol) ){
-			return this.M[idlin][idcol];
+			return this.M[idlin*this.Ncol+idcol];
 		}
 		else
 		{
@@ -166,8 +233,8 @@ public class PdsMatrix {
 
 		for(int i=0;i<this.Nlin;i++)	
 			for(int j=0;j<this.Ncol;j++)
-				if(i==j)	this.M[i][j]=Val;
-				else		this.M[i][j]=0;
+				if(i==j)	this.M[i*this.Ncol+j]=Val;
+				else		this.M[i*this.Ncol+j]=0;
 
 				
 	}
@@ -181,9 +248,16 @@ public class PdsMatrix {
 	 * @param j Segunda linha a intercambiar.
 	 **/
 	public void SwapRows(int i,int j) {
-		double[] temp = this.M[i];
-        this.M[i] = this.M[j];
-        this.M[j] = temp;
+		double temp;
+		int a=i*this.Ncol;
+		int b=j*this.Ncol;
+
+		for(int k=0;k<this.Ncol;k++)
+		{
+			temp = this.M[a+k];
+			this.M[a+k] = this.M[b+k];
+			this.M[b+k] = temp;
+		}
 	}
 
 	/**
@@ -194,40 +268,271 @@ public class PdsMatrix {
 	 * que o numero de colunas da matriz, então retorna null.
 	 * @param MatSrc É a matriz de fonte para a multiplicaçao Mout=M*Matsrc.
 	 * @return Retorna a matriz Mout de Mout=M*Matsrc.
+	 * @see #MulInto(PdsMatrix,PdsMatrix,PdsMatrix)
 	 **/
 	public PdsMatrix MulNew(PdsMatrix MatSrc) {
-		PdsMatrix	Mat=this;
 		PdsMatrix	Mout=null;
-		int N;
 		
 		if( MatSrc==null )				return null;
-		if( Mat.Ncol != MatSrc.Nlin )	return null;
+		if( this.Ncol != MatSrc.Nlin )	return null;
 		
-		N=Mat.Ncol;
-		
-		Mout=new PdsMatrix(Mat.Nlin,MatSrc.Ncol);
+		Mout=new PdsMatrix(this.Nlin,MatSrc.Ncol);
 		if(Mout==null)	return null;
-				
-		for(int i=0;i<Mat.Nlin;i++)	
+
+		MulInto(Mout,this,MatSrc);
+		return Mout;
+	}
+
+	/**
+	 * Este método multiplica a matriz A com a matriz B e escreve o
+	 * resultado em Dst, sem criar matrizes novas.
+	 * <br>
+	 * Dst=A*B. A multiplicação é feita por blocos, e dentro de cada bloco na
+	 * ordem i-k-j, de jeito que o laço interno percorre linhas contínuas de
+	 * B e de Dst.
+	 * @param Dst É a matriz de saída, com A.Nlin linhas e B.Ncol colunas.
+	 *            Não pode ser a mesma matriz A ou B.
+	 * @param A É a matriz da esquerda.
+	 * @param B É a matriz da direita.
+	 * @return Retorna true se a multiplicação foi feita, ou false se os
+	 *         tamanhos não são compatíveis ou Dst é A ou B.
+	 **/
+	public static boolean MulInto(PdsMatrix Dst,PdsMatrix A,PdsMatrix B) {
+
+		if( (Dst==null)||(A==null)||(B==null) )	return false;
+		if( A.Ncol != B.Nlin )						return false;
+		if( (Dst.Nlin!=A.Nlin)||(Dst.Ncol!=B.Ncol) )	return false;
+		if( (Dst==A)||(Dst==B) )					return false;
+
+		Run(OP_MUL,Dst,A,B,null,null,0,A.Nlin,(long)A.Ncol*B.Ncol);
+		return true;
+	}
+
+	// Linhas lo..hi de Dst=A*B.
+	private static void MulRows(PdsMatrix Dst,PdsMatrix A,PdsMatrix B,int lo,int hi) {
+		int Nc,N;
+		int i,j,k,ii,jj,kk,imax,jmax,kmax;
+		int ia,ib,id;
+		double aik;
+		double[] a,b,d;
+
+		Nc=B.Ncol;
+		N=A.Ncol;
+		a=A.M;
+		b=B.M;
+		d=Dst.M;
+
+		// Matrizes pequenas (filtros de estado): produto escalar direto,
+		// sem zerar Dst nem os laços dos blocos.
+		if( (N<=SMALL)&&(Nc<=SMALL) )
 		{
-			for(int j=0;j<MatSrc.Ncol;j++)
+			for(i=lo;i<hi;i++)
 			{
-				Mout.M[i][j]=0;
-				for(int k=0;k<N;k++)
+				ia=i*N;
+				id=i*Nc;
+				for(j=0;j<Nc;j++)
 				{
-					Mout.M[i][j]=Mout.M[i][j]+Mat.M[i][k]*MatSrc.M[k][j];
+					aik=0;
+					for(k=0;k<N;k++)	aik=aik+a[ia+k]*b[k*Nc+j];
+					d[id+j]=aik;
+				}
+			}
+			return;
+		}
+
+		for(i=lo*Nc;i<hi*Nc;i++)	d[i]=0;
+
+		for(ii=lo;ii<hi;ii+=BLOCK)
+		{
+			imax=Math.min(ii+BLOCK,hi);
+			for(kk=0;kk<N;kk+=BLOCK)
+			{
+				kmax=Math.min(kk+BLOCK,N);
+				for(jj=0;jj<Nc;jj+=BLOCK)
+				{
+					jmax=Math.min(jj+BLOCK,Nc);
+					for(i=ii;i<imax;i++)
+					{
+						ia=i*N;
+						id=i*Nc;
+						for(k=kk;k<kmax;k++)
+						{
+							aik=a[ia+k];
+							ib=k*Nc;
+							for(j=jj;j<jmax;j++)
+							{
+								d[id+j]=d[id+j]+aik*b[ib+j];
+							}
+						}
+					}
 				}
 			}
 		}
-		return Mout;
 	}
 
+	/**
+	 * Este método multiplica a matriz M com o vetor VecSrc e retorna 
+	 * um novo vetor.
+	 * <br>
+	 * Vout=M*VecSrc. Se o numero de elementos de VecSrc e diferente 
+	 * que o numero de colunas da matriz, então retorna null.
+	 * @param VecSrc É o vetor de fonte para a multiplicaçao Vout=M*VecSrc.
+	 * @return Retorna o vetor Vout de Vout=M*VecSrc.
+	 **/
+	public PdsVector MulNew(PdsVector VecSrc) {
+		PdsVector	Vout=null;
+
+		if( VecSrc==null )				return null;
+		if( this.Ncol != VecSrc.Nel )	return null;
+
+		Vout=new PdsVector(this.Nlin);
+		if(Vout==null)	return null;
+
+		MulInto(Vout,this,VecSrc);
+		return Vout;
+	}
+
+	/**
+	 * Este método multiplica a matriz A com o vetor X e escreve o resultado
+	 * em Dst, sem criar vetores novos.
+	 * <br>
+	 * Dst=A*X.
+	 * @param Dst É o vetor de saída, com A.Nlin elementos. Não pode ser X.
+	 * @param A É a matriz.
+	 * @param X É o vetor, com A.Ncol elementos.
+	 * @return Retorna true se a multiplicação foi feita, ou false se os
+	 *         tamanhos não são compatíveis ou Dst é X.
+	 **/
+	public static boolean MulInto(PdsVector Dst,PdsMatrix A,PdsVector X) {
+
+		if( (Dst==null)||(A==null)||(X==null) )	return false;
+		if( (A.Ncol!=X.Nel)||(Dst.Nel!=A.Nlin) )	return false;
+		if( Dst==X )								return false;
+
+		Run(OP_MULVEC,null,A,null,Dst.V,X.V,0,A.Nlin,A.Ncol);
+		return true;
+	}
+
+	// Linhas lo..hi de y=A*x.
+	private static void MulVecRows(double[] y,PdsMatrix A,double[] x,int lo,int hi) {
+		int i,j,ia;
+		int N=A.Ncol;
+		double S;
+		double[] a=A.M;
+
+		for(i=lo;i<hi;i++)
+		{
+			ia=i*N;
+			S=0;
+			for(j=0;j<N;j++)	S=S+a[ia+j]*x[j];
+			y[i]=S;
+		}
+	}
+
+	/**
+	 * Este método soma a esta matriz a matriz MatSrc e o resultado 
+	 * é copiado em si mesma. 
+	 * <br>
+	 * Matrix.Add(MatSrc) é equivalente a Matrix=Matrix+MatSrc. 
+	 * @param MatSrc É a matriz a usar em Matrix=Matrix+MatSrc, do mesmo tamanho.
+	 * @return Retorna false se os tamanhos são diferentes (e não faz nada).
+	 **/
+	public boolean Add(PdsMatrix MatSrc) {
+		return Add(1.0,MatSrc);
+	}
+
+	/**
+	 * Este método diminui a esta matriz a matriz MatSrc e o resultado 
+	 * é copiado em si mesma. 
+	 * <br>
+	 * Matrix.Sub(MatSrc) é equivalente a Matrix=Matrix-MatSrc. 
+	 * @param MatSrc É a matriz a usar em Matrix=Matrix-MatSrc, do mesmo tamanho.
+	 * @return Retorna false se os tamanhos são diferentes (e não faz nada).
+	 **/
+	public boolean Sub(PdsMatrix MatSrc) {
+		return Add(-1.0,MatSrc);
+	}
+
+	/**
+	 * Este método soma a esta matriz a matriz Val*MatSrc e o resultado 
+	 * é copiado em si mesma. 
+	 * <br>
+	 * Matrix.Add(Val,MatSrc) é equivalente a Matrix=Matrix+Val*MatSrc. 
+	 * @param Val É o valor real a usar em Matrix=Matrix+Val*MatSrc.  
+	 * @param MatSrc É a matriz a usar em Matrix=Matrix+Val*MatSrc, do mesmo tamanho.
+	 * @return Retorna false se os tamanhos são diferentes (e não faz nada).
+	 **/
+	public boolean Add(double Val,PdsMatrix MatSrc) {
+		if( MatSrc==null )	return false;
+		if( (this.Nlin!=MatSrc.Nlin)||(this.Ncol!=MatSrc.Ncol) )	return false;
+
+		Run(OP_ADD,this,MatSrc,null,null,null,Val,this.Nlin,this.Ncol);
+		return true;
+	}
+
+	/**
+	 * Este método multiplica esta matriz por um valor real e o resultado 
+	 * é copiado em si mesma. 
+	 * <br>
+	 * Matrix.Mul(Val) é equivalente a Matrix=Val*Matrix. 
+	 * @param Val É o valor a usar em Matrix=Val*Matrix.  
+	 **/
+	public void Mul(double Val) {
+		Run(OP_MULVAL,this,null,null,null,null,Val,this.Nlin,this.Ncol);
+	}
+
+	// Linhas lo..hi de D=D+Val*A (A!=null) ou D=Val*D (A==null).
+	private static void ScaleAddRows(PdsMatrix D,double Val,PdsMatrix A,int lo,int hi) {
+		int i;
+		int end=hi*D.Ncol;
+		double[] d=D.M;
+
+		if(A==null)
+		{
+			for(i=lo*D.Ncol;i<end;i++)	d[i]=Val*d[i];
+		}
+		else
+		{
+			double[] a=A.M;
+			for(i=lo*D.Ncol;i<end;i++)	d[i]=d[i]+Val*a[i];
+		}
+	}
+
+	// Executa a operação op nas linhas 0..nlin, dividindo as linhas entre
+	// threads se nlin*perRow passa do limiar.
+	private static void Run(int op,PdsMatrix D,PdsMatrix A,PdsMatrix B,double[] y,double[] x,
+	                        double Val,int nlin,long perRow) {
+		long work=nlin*perRow;
+		long threshold=ParallelThreshold;
+
+		if( (work<threshold)||(nlin<2) )
+		{
+			Rows(op,D,A,B,y,x,Val,0,nlin);
+			return;
+		}
+
+		PdsMatrixTask.Invoke(op,D,A,B,y,x,Val,nlin,perRow,threshold);
+	}
+
+	// Executa a operação op nas linhas lo..hi (também usado por PdsMatrixTask).
+	static void Rows(int op,PdsMatrix D,PdsMatrix A,PdsMatrix B,double[] y,double[] x,
+	                 double Val,int lo,int hi) {
+		switch(op)
+		{
+			case OP_MUL:		MulRows(D,A,B,lo,hi);	break;
+			case OP_TRANSPOSE:	TransposeBlock(A.M,A.Ncol,D.M,D.Ncol,lo,hi,0,A.Ncol);	break;
+			case OP_ADD:		ScaleAddRows(D,Val,A,lo,hi);	break;
+			case OP_MULVAL:		ScaleAddRows(D,Val,null,lo,hi);	break;
+			case OP_MULVEC:		MulVecRows(y,A,x,lo,hi);	break;
+		}
+	}
 
 	/**
 	 * Este método retorna a transposta de uma matriz M.
 	 * <br>
 	 * 
 	 * @return Retorna a matriz Mout de Mout=M^T.
+	 * @see #Transpose()
 	 **/
 	public PdsMatrix TransposeNew() {
         
@@ -235,12 +540,137 @@ public class PdsMatrix {
         
         if(Mout==null)	return null;
         
-        for (int i = 0; i < this.Nlin; i++)
-            for (int j = 0; j < this.Ncol; j++)
-                Mout.M[j][i] = this.M[i][j];
+        Run(OP_TRANSPOSE,Mout,this,null,null,null,0,this.Nlin,this.Ncol);
         return Mout;
 	}
 
+	/**
+	 * Este método transpõe a matriz M, sem criar uma matriz nova.
+	 * <br>
+	 * M=M^T. Se a matriz não é quadrada, então o número de linhas e o
+	 * de colunas são intercambiados.
+	 **/
+	public void Transpose() {
+		if(this.Nlin==this.Ncol)
+		{
+			TransposeSquare(this.M,this.Ncol,0,this.Nlin);
+		}
+		else
+		{
+			TransposeCycles(this.M,this.Nlin,this.Ncol);
+
+			int tmp=this.Nlin;
+			this.Nlin=this.Ncol;
+			this.Ncol=tmp;
+		}
+	}
+
+	// Copia src[i][j] (linhas i0..i1, colunas j0..j1) em dst[j][i], dividindo
+	// pela metade o lado maior até que o bloco caiba na cache.
+	private static void TransposeBlock(double[] src,int sCols,double[] dst,int dCols,
+	                                   int i0,int i1,int j0,int j1) {
+		int di=i1-i0;
+		int dj=j1-j0;
+
+		if( (di<=TRANSPOSE_LEAF)&&(dj<=TRANSPOSE_LEAF) )
+		{
+			for(int i=i0;i<i1;i++)
+				for(int j=j0;j<j1;j++)
+					dst[j*dCols+i]=src[i*sCols+j];
+		}
+		else if(di>=dj)
+		{
+			int im=i0+di/2;
+			TransposeBlock(src,sCols,dst,dCols,i0,im,j0,j1);
+			TransposeBlock(src,sCols,dst,dCols,im,i1,j0,j1);
+		}
+		else
+		{
+			int jm=j0+dj/2;
+			TransposeBlock(src,sCols,dst,dCols,i0,i1,j0,jm);
+			TransposeBlock(src,sCols,dst,dCols,i0,i1,jm,j1);
+		}
+	}
+
+	// Transpõe no lugar o bloco quadrado de lado n da diagonal que começa em
+	// (i0,i0). Divide em 4 blocos: os dois da diagonal se transpõem sozinhos
+	// e os outros dois se intercambiam transpostos.
+	private static void TransposeSquare(double[] m,int cols,int i0,int n) {
+		if(n<=TRANSPOSE_LEAF)
+		{
+			for(int i=i0;i<i0+n;i++)
+				for(int j=i+1;j<i0+n;j++)
+				{
+					double tmp=m[i*cols+j];
+					m[i*cols+j]=m[j*cols+i];
+					m[j*cols+i]=tmp;
+				}
+			return;
+		}
+		int h=n/2;
+		TransposeSquare(m,cols,i0,h);
+		TransposeSquare(m,cols,i0+h,n-h);
+		SwapTransposed(m,cols,i0,i0+h,i0+h,i0,h,n-h);
+	}
+
+	// Intercambia o bloco A (linhas ai.., colunas aj.., tamanho nl x nc) com a
+	// transposta do bloco B (linhas bi.., colunas bj.., tamanho nc x nl).
+	private static void SwapTransposed(double[] m,int cols,int ai,int aj,int bi,int bj,int nl,int nc) {
+		if( (nl<=TRANSPOSE_LEAF)&&(nc<=TRANSPOSE_LEAF) )
+		{
+			for(int i=0;i<nl;i++)
+				for(int j=0;j<nc;j++)
+				{
+					double tmp=m[(ai+i)*cols+aj+j];
+					m[(ai+i)*cols+aj+j]=m[(bi+j)*cols+bj+i];
+					m[(bi+j)*cols+bj+i]=tmp;
+				}
+		}
+		else if(nl>=nc)
+		{
+			int h=nl/2;
+			SwapTransposed(m,cols,ai,aj,bi,bj,h,nc);
+			SwapTransposed(m,cols,ai+h,aj,bi,bj+h,nl-h,nc);
+		}
+		else
+		{
+			int h=nc/2;
+			SwapTransposed(m,cols,ai,aj,bi,bj,nl,h);
+			SwapTransposed(m,cols,ai,aj+h,bi+h,bj,nl,nc-h);
+		}
+	}
+
+	// Transposta no lugar de uma matriz não quadrada, seguindo os ciclos da
+	// permutação p -> (p*Nlin) mod (N-1). Cada ciclo é percorrido só a partir
+	// do seu menor índice, sem memoria auxiliar.
+	private static void TransposeCycles(double[] m,int Nlin,int Ncol) {
+		int n=Nlin*Ncol;
+		long last=n-1;
+		int start,p;
+		double val,tmp;
+
+		for(start=1;start<last;start++)
+		{
+			// start é o menor índice do seu ciclo?
+			p=(int)((start*(long)Nlin)%last);
+			while(p>start)	p=(int)((p*(long)Nlin)%last);
+			if(p<start)	continue;
+
+			// O elemento da posição p (linha p/Ncol, coluna p%Ncol) vai para
+			// a posição (p%Ncol)*Nlin+p/Ncol = p*Nlin mod (n-1).
+			val=m[start];
+			p=start;
+			do
+			{
+				p=(int)((p*(long)Nlin)%last);
+				tmp=m[p];
+				m[p]=val;
+				val=tmp;
+			}
+			while(p!=start);
+		}
+	}
+
 	/**
 	 * Este método provoca que se usamos uma instância de PdsMatrix
 	 * num contexto que necessita-se ser String, então esta instância
@@ -253,7 +683,7 @@ public class PdsMatrix {
 		TMP="";
 		for(int i=0;i<this.Nlin;i++){
 			for(int j=0;j<this.Ncol;j++){
-				TMP=TMP+ this.M[i][j] + "\t";
+				TMP=TMP+ this.M[i*this.Ncol+j] + "\t";
 			}
 			TMP=TMP+"\n";
 		}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.pdsra;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Divide as linhas lo..hi de uma operação de PdsMatrix pela metade até ter
+// no máximo grain linhas. Fica fora de PdsMatrix para que ForkJoinPool só
+// seja carregado quando uma operação passa do limiar.
+final class PdsMatrixTask extends RecursiveAction {
+	private static final long serialVersionUID=1L;
+
+	private final int op;
+	private final PdsMatrix D,A,B;
+	private final double[] y,x;
+	private final double Val;
+	private final int lo,hi,grain;
+
+	PdsMatrixTask(int op,PdsMatrix D,PdsMatrix A,PdsMatrix B,double[] y,double[] x,
+	              double Val,int lo,int hi,int grain) {
+		this.op=op;
+		this.D=D;
+		this.A=A;
+		this.B=B;
+		this.y=y;
+		this.x=x;
+		this.Val=Val;
+		this.lo=lo;
+		this.hi=hi;
+		this.grain=grain;
+	}
+
+	protected void compute() {
+		if(hi-lo<=grain)
+		{
+			PdsMatrix.Rows(op,D,A,B,y,x,Val,lo,hi);
+			return;
+		}
+		int mid=(lo+hi)>>>1;
+		invokeAll(new PdsMatrixTask(op,D,A,B,y,x,Val,lo,mid,grain),
+		          new PdsMatrixTask(op,D,A,B,y,x,Val,mid,hi,grain));
+	}
+
+	// Executa a operação op nas linhas 0..nlin no pool de PdsForkJoin.
+	static void Invoke(int op,PdsMatrix D,PdsMatrix A,PdsMatrix B,double[] y,double[] x,
+	                   double Val,int nlin,long perRow,long threshold) {
+		ForkJoinPool pool=PdsForkJoin.GetPool();
+		// Tarefas de pelo menos ~1/8 do limiar, e umas 4 por thread.
+		long minRows=Math.max(1,(threshold/8)/Math.max(1,perRow));
+		int grain=(int)Math.max(minRows,nlin/(4L*pool.getParallelism()));
+
+		pool.invoke(new PdsMatrixTask(op,D,A,B,y,x,Val,0,nlin,grain));
+	}
+}
@@ -36,8 +36,9 @@ import java.lang.*;
  * @see <a href="http://pdsplib.sourceforge.net"> PDS Project Libraries in Java </a>
  */
 public class PdsVector {
-	private int Nel;
-	private double[] V;
+	// Sem private: PdsMatrix usa Nel e V nos produtos matriz-vetor.
+	int Nel;
+	double[] V;
 
 	/**
 	 * Este construtor da classe é necessário inicializar-lo indicando o numero N de elementos 
@@ -18,14 +18,19 @@
 
 package net.sourceforge.pdsplibj.pdsrv;
 
-import java.util.*;
+import java.nio.DoubleBuffer;
 import net.sourceforge.pdsplibj.pdsrv.PdsRV;
+import net.sourceforge.pdsplibj.pdsrv.PdsSplitMix64;
 
 /** 
  * Esta classe implementa uma variável aleatória inteira K, uniformemente distribuída 
  * entre 0 e PdsRV.PDS_RAND_MAX.<br>
  *
  * <br> Esta variável aleatoria nunca atinge o valor PdsRV.PDS_RAND_MAX.<br><br>
+ * Avançar n valores é aplicar n vezes {@latex.inline $x \\to a x + c$}, o que
+ * é outra função afim e se calcula em {@latex.inline $O(\\log n)$} passos; com
+ * isso {@link #FillParallel(double[],int,int)} dá o mesmo resultado que
+ * {@link #Fill(double[],int,int)}.<br><br>
  *  <center><img src="{@docRoot}/doc/imagenes/PdsCongruential.png" width="500" alt="0&le;k&lt;PdsRV.PDS_RAND_MAX"></center><br>
  *  Para usar esta classe é necessário escrever:
  *  <pre>  import net.sourceforge.pdsplibj.pdsrv.PdsCongruential; </pre>
@@ -35,7 +40,7 @@ import net.sourceforge.pdsplibj.pdsrv.PdsRV;
  * @since 2015-05-25
  * @see <a href="http://pdsplib.sourceforge.net"> PDS Project Libraries in Java </a>
 */
-public class PdsCongruential {
+public class PdsCongruential implements PdsFillTask.Part {
 	/** 
 	 * A semente inicial da sequencia aleatória. 0<=x0<PdsRV.PDS_RAND_MAX
 	 */
@@ -61,103 +66,212 @@ public class PdsCongruential {
 	 */
 	private long xn;
 
+	/** 
+	 * A máscara {@latex.inline $PDS\\_RAND\\_MAX-1$}, usada no lugar do módulo
+	 * quando PdsRV.PDS_RAND_MAX é uma potência de 2 (como o padrão
+	 * {@latex.inline $2^{31}$}); se não é, vale -1 e o módulo é usado.
+	 */
+	private long Mask;
+
+	/** O valor de PdsRV.PDS_RAND_MAX quando a variável foi criada. */
+	private long M;
+
 	/**
 	 * Este é o construtor da classe PdsCongruential.
 	 *
-	 * Sô pode-se criar 7829 variáveis aleatórias (sequencias pseudo
-	 * aleatórias distintas), depois as variáveis aleatórias (sequencias)
-	 * serão repetidas, mas serão mesmo assim versões deslocadas no tempo.
+	 * A semente e o incremento c são tirados de {@link PdsSplitMix64#NewSeed()},
+	 * então cada variável criada, em qualquer thread, tem uma sequencia
+	 * distinta, sem travas.
 	 **/
 	public PdsCongruential() {
-		Date date = new Date();
-		long time = date.getTime();
-
-		this.xn = time%(PdsRV.PDS_RAND_MAX/2);
-		this.x0 = this.xn;
-		this.a  = 1103515245;
-		this.c  =(long)pds_inc(t3,t5,t7,t11,t13,t17);
-		
-		// Buscando el nuevo incremento de c.
-		pds_next_inc();
+		this(PdsSplitMix64.NewSeed());
+	}
+
+	/**
+	 * Este é o construtor da classe PdsCongruential com uma semente explícita:
+	 * a mesma semente sempre gera a mesma sequencia.
+	 *
+	 * @param Seed A semente; dela saem o valor inicial e o incremento c.
+	 **/
+	public PdsCongruential(long Seed) {
+		long h;
+
+		this.M=PdsRV.PDS_RAND_MAX;
+		if( (this.M>0)&&((this.M&(this.M-1))==0) )	this.Mask=this.M-1;
+		else										this.Mask=-1;
+
+		this.a=1103515245;
+
+		h=PdsSplitMix64.Mix(Seed);
+		this.xn=this.Reduce(h>>>1);
+		this.x0=this.xn;
+
+		// c ímpar e primo relativo com PDS_RAND_MAX (período completo para 2^N).
+		h=PdsSplitMix64.Mix(h+PdsSplitMix64.GOLDEN_GAMMA);
+		this.c=this.Reduce(h>>>1)|1;
+	}
+
+	// Cópia de Src que começa em xn, para um bloco de FillParallel.
+	private PdsCongruential(PdsCongruential Src,long xn) {
+		this.M=Src.M;
+		this.Mask=Src.Mask;
+		this.a=Src.a;
+		this.c=Src.c;
+		this.xn=xn;
+		this.x0=xn;
+	}
+
+	// x mod PDS_RAND_MAX para x>=0, com a máscara se for possível.
+	private long Reduce(long x) {
+		if(this.Mask>=0)	return x&this.Mask;
+		else				return x%this.M;
+	}
+
+	// x*y mod PDS_RAND_MAX para 0<=x,y<PDS_RAND_MAX. Com a máscara o estouro
+	// não importa (só ficam os bits baixos); sem ela, como em GetValue(), o
+	// produto não passa de 2^62.
+	private long MulMod(long x,long y) {
+		if(this.Mask>=0)	return (x*y)&this.Mask;
+		else				return (x*y)%this.M;
 	}
 
 	/**
 	 * Este método o inicia a variável aleatória congruential.
 	 * 
 	 * Se x0 esta fora do rango [0,PdsRV.PDS_RAND_MAX> então ele toma 
-	 * o valor de 0.
+	 * o valor de x0 módulo PdsRV.PDS_RAND_MAX.
 	 * @param x0 valor inicial da variável aleatória congruential.
 	 **/
 	public void Init(long x0) {
-		this.xn=x0%PdsRV.PDS_RAND_MAX;
+		this.xn=this.Reduce(x0&Long.MAX_VALUE);
 		this.x0=this.xn;
 	}
 	
 
 	/**
-	 * Este método retorna um valor da variável aleatória gaussiana.
+	 * Este método retorna um valor da variável aleatória congruential.
 	 *
+	 * Como a<2^31 e xn<2^31, o produto não passa de 2^62 e a redução com a
+	 * máscara é igual ao módulo.
 	 *
-	 * @return Retorna um valor da variável aleatória gaussiana.
+	 * @return Retorna um valor da variável aleatória congruential.
 	 **/
 	public long GetValue() {
 		this.x0=this.xn;
-		this.xn=(this.a*this.x0+this.c)%PdsRV.PDS_RAND_MAX;
+		if(this.Mask>=0)	this.xn=(this.a*this.x0+this.c)&this.Mask;
+		else				this.xn=(this.a*this.x0+this.c)%this.M;
 	
 		return this.x0;
 	}
 
-////////////////////////////////////////////////////////////////////////	
-////////////////////////////////////////////////////////////////////////
-////// Variáveis estáticas para criar novas variáveis aleatórias
-////////////////////////////////////////////////////////////////////////
-////////////////////////////////////////////////////////////////////////
-	private static long t3=1;
-	private static long t5=0;
-	private static long t7=0;
-	private static long t11=0;
-	private static long t13=0;
-	private static long t17=0;
-	
-	// Avalia eo Incremento.
-	private static double pds_inc(	long T3, long T5 ,long T7,
-									long T11,long T13,long T17)
-	{
-		return	Math.pow(3.0,T3)*
-				Math.pow(5.0,T5)*
-				Math.pow(7.0,T7)*
-				Math.pow(11.0,T11)*
-				Math.pow(13.0,T13)*
-				Math.pow(17.0,T17);
+	/**
+	 * Este método preenche Dst[Off] até Dst[Off+Len-1] com os próximos Len
+	 * valores de {@link #GetValue()}, convertidos para double.
+	 *
+	 * @param Dst O vetor de destino.
+	 * @param Off O primeiro índice a preencher.
+	 * @param Len O número de valores.
+	 **/
+	public void Fill(double[] Dst,int Off,int Len) {
+		int i,end;
+		long x,a,c,mask,m;
+
+		if(Len<=0)	return;
+
+		x=this.xn;
+		a=this.a;
+		c=this.c;
+		mask=this.Mask;
+		m=this.M;
+		end=Off+Len;
+
+		if(mask>=0)
+		{
+			for(i=Off;i<end;i++)
+			{
+				Dst[i]=x;
+				x=(a*x+c)&mask;
+			}
+		}
+		else
+		{
+			for(i=Off;i<end;i++)
+			{
+				Dst[i]=x;
+				x=(a*x+c)%m;
+			}
+		}
+
+		this.x0=(long)Dst[end-1];
+		this.xn=x;
 	}
 
-	// Encontra os índices. cria 7829 índices distintos, o que e 
-	// equivalente a dizer que se tem 7829 variáveis aleatórias.
-	private static void pds_next_inc()
-	{
-		if(pds_inc(t3+1,t5,t7,t11,t13,t17)<(PdsRV.PDS_RAND_MAX*1.0))	{t3=t3+1;}
+	/**
+	 * Este método preenche Dst[Off] até Dst[Off+Len-1] como
+	 * {@link #Fill(double[],int,int)}, mas em paralelo, com o mesmo resultado.
+	 *
+	 * O vetor é dividido em blocos de {@link PdsXoshiro256#PARALLEL_BLOCK}
+	 * valores. Aplicar {@latex.inline $x \\to a x + c$} B vezes é
+	 * {@latex.inline $x \\to A x + C$}, com {@latex.inline $A=a^B$} e
+	 * {@latex.inline $C=c(a^{B-1}+\\cdots+a+1)$}, calculados com quadrados
+	 * repetidos; o valor inicial de cada bloco sai do anterior com um passo
+	 * desses. No fim, a variável fica como depois de
+	 * {@link #Fill(double[],int,int)}. Os blocos são divididos entre as
+	 * threads do pool de {@link net.sourceforge.pdsplibj.pdsra.PdsForkJoin}.
+	 *
+	 * @param Dst O vetor de destino.
+	 * @param Off O primeiro índice a preencher.
+	 * @param Len O número de valores.
+	 **/
+	public void FillParallel(double[] Dst,int Off,int Len) {
+		int k,n,b;
+		long ja,jc,pa,pc,x;
+		PdsCongruential[] parts;
+
+		if(Len<=0)	return;
+
+		// (ja,jc) = (a,c) composta PARALLEL_BLOCK vezes.
+		ja=1;	jc=0;
+		pa=this.a;	pc=this.c;
+		for(b=PdsXoshiro256.PARALLEL_BLOCK;b>0;b>>>=1)
+		{
+			if((b&1)!=0)
+			{
+				ja=this.MulMod(pa,ja);
+				jc=this.Reduce(this.MulMod(pa,jc)+pc);
+			}
+			pc=this.Reduce(this.MulMod(pa,pc)+pc);
+			pa=this.MulMod(pa,pa);
+		}
+
+		n=PdsFillTask.Blocks(Len);
+		parts=new PdsCongruential[n];
+		x=this.xn;
+		for(k=0;k<n;k++)
+		{
+			parts[k]=new PdsCongruential(this,x);
+			x=this.Reduce(this.MulMod(ja,x)+jc);
+		}
+		PdsFillTask.Run(parts,Dst,Off,Len);
+
+		this.x0=parts[n-1].x0;
+		this.xn=parts[n-1].xn;
+	}
+
+	/**
+	 * Este método preenche os elementos restantes de Dst (de position até
+	 * limit) como {@link #Fill(double[],int,int)}; no fim position=limit.
+	 * @param Dst O buffer de destino.
+	 **/
+	public void Fill(DoubleBuffer Dst) {
+		if(Dst.hasArray())
+		{
+			this.Fill(Dst.array(),Dst.arrayOffset()+Dst.position(),Dst.remaining());
+			Dst.position(Dst.limit());
+		}
 		else
-		{	t3=1; 
-			if(pds_inc(t3,t5+1,t7,t11,t13,t17)<(PdsRV.PDS_RAND_MAX*1.0))	{t5=t5+1;}
-			else
-			{	t5=0;
-				if(pds_inc(t3,t5,t7+1,t11,t13,t17)<(PdsRV.PDS_RAND_MAX*1.0))	{t7=t7+1;}
-				else
-				{	t7=0;
-					if(pds_inc(t3,t5,t7,t11+1,t13,t17)<(PdsRV.PDS_RAND_MAX*1.0))	{t11=t11+1;}
-					else
-					{	t11=0;
-						if(pds_inc(t3,t5,t7,t11,t13+1,t17)<(PdsRV.PDS_RAND_MAX*1.0))	{t13=t13+1;}
-						else
-						{	t13=0;
-							if(pds_inc(t3,t5,t7,t11,t13,t17+1)<(PdsRV.PDS_RAND_MAX*1.0))	{t17=t17+1;}
-							else									{t17=0;	t3=1;t5=0;t7=0;t11=0;t13=0;}
-						}
-					}
-				}
-			}		
+		{
+			while(Dst.hasRemaining())	Dst.put((double)this.GetValue());
 		}
 	}
-////////////////////////////////////////////////////////////////////////	
-////////////////////////////////////////////////////////////////////////
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.pdsrv;
+
+import java.util.concurrent.RecursiveAction;
+import net.sourceforge.pdsplibj.pdsra.PdsForkJoin;
+
+// Preenche um vetor em blocos de PdsXoshiro256.PARALLEL_BLOCK valores, cada
+// um com a sua própria variável (Parts[k] preenche o bloco k). Como a divisão
+// não depende do número de threads, o resultado é sempre o mesmo. O pool é
+// o de PdsForkJoin, o mesmo de PdsMatrix.
+final class PdsFillTask extends RecursiveAction {
+	private static final long serialVersionUID=1L;
+
+	// Uma variável que sabe preencher um pedaço de vetor.
+	interface Part {
+		void Fill(double[] Dst,int Off,int Len);
+	}
+
+	private final Part[] Parts;
+	private final double[] Dst;
+	private final int Off,End;
+	private final int lo,hi;
+
+	PdsFillTask(Part[] Parts,double[] Dst,int Off,int Len,int lo,int hi) {
+		this.Parts=Parts;
+		this.Dst=Dst;
+		this.Off=Off;
+		this.End=Off+Len;
+		this.lo=lo;
+		this.hi=hi;
+	}
+
+	protected void compute() {
+		int k,a,b;
+
+		if(hi-lo==1)
+		{
+			a=Off+lo*PdsXoshiro256.PARALLEL_BLOCK;
+			b=Math.min(a+PdsXoshiro256.PARALLEL_BLOCK,End);
+			Parts[lo].Fill(Dst,a,b-a);
+			return;
+		}
+		k=(lo+hi)>>>1;
+		invokeAll(new PdsFillTask(Parts,Dst,Off,End-Off,lo,k),
+		          new PdsFillTask(Parts,Dst,Off,End-Off,k,hi));
+	}
+
+	// Preenche o bloco k de Dst com Parts[k], em paralelo.
+	static void Run(Part[] Parts,double[] Dst,int Off,int Len) {
+		if(Parts.length==1)		Parts[0].Fill(Dst,Off,Len);
+		else if(Parts.length>1)	PdsForkJoin.GetPool().invoke(new PdsFillTask(Parts,Dst,Off,Len,0,Parts.length));
+	}
+
+	// Número de blocos para Len valores.
+	static int Blocks(int Len) {
+		return (Len+PdsXoshiro256.PARALLEL_BLOCK-1)/PdsXoshiro256.PARALLEL_BLOCK;
+	}
+}
@@ -18,9 +18,9 @@
 
 package net.sourceforge.pdsplibj.pdsrv;
 
-import net.sourceforge.pdsplibj.pdsrv.PdsCongruential;
-import net.sourceforge.pdsplibj.pdsrv.PdsUniform;
-import net.sourceforge.pdsplibj.pdsrv.PdsRV;
+import java.nio.DoubleBuffer;
+import net.sourceforge.pdsplibj.pdsrv.PdsRandomGenerator;
+import net.sourceforge.pdsplibj.pdsrv.PdsXoshiro256;
 /** 
  * Esta classe implementa uma variável aleatória gaussiana.
  *
@@ -39,6 +39,9 @@ import net.sourceforge.pdsplibj.pdsrv.PdsRV;
  *
  *  //Logo simplesmente pedir os dados
  *  value=X.GetValue();
+ *
+ *  //Ou muitos de uma vez
+ *  X.Fill(v,0,v.length);
  * </pre>
  * <br>
  * @author Fernando Pujaico Rivera <a href="mailto:fernando.pujaico.rivera@gmail.com">fernando.pujaico.rivera@gmail.com</a>
@@ -46,11 +49,37 @@ import net.sourceforge.pdsplibj.pdsrv.PdsRV;
  * @since 2015-05-25
  * @see <a href="http://pdsplib.sourceforge.net"> PDS Project Libraries in Java </a>
 */
-public class PdsGaussian {
-	// Uma sequencia aleatória congruencial
-	private PdsCongruential X1=null;
-	// Uma variável aleatória uniformemente distribuída entre [0,1).
-	private PdsUniform X2=null;
+public class PdsGaussian implements PdsFillTask.Part {
+	/** Número de blocos do Ziggurat (potência de 2). */
+	public static final int ZIGNOR_C=128;
+	/** Início da cauda do Ziggurat: a borda direita do bloco de baixo. */
+	public static final double ZIGNOR_R=3.442619855899;
+	/** Área de cada bloco do Ziggurat, para {@link #ZIGNOR_C} e {@link #ZIGNOR_R}. */
+	public static final double ZIGNOR_V=9.91256303526217e-3;
+
+	// Tabelas do Ziggurat, compartilhadas por todas as variáveis (só leitura):
+	// ZigX[i] é a borda direita do bloco i e ZigR[i]=ZigX[i+1]/ZigX[i].
+	private static final double[] ZigX=new double[ZIGNOR_C+1];
+	private static final double[] ZigR=new double[ZIGNOR_C];
+
+	static {
+		int i;
+		double f;
+
+		f=Math.exp(-0.5*ZIGNOR_R*ZIGNOR_R);
+		ZigX[0]=ZIGNOR_V/f;	// o bloco de baixo inclui a cauda
+		ZigX[1]=ZIGNOR_R;
+		ZigX[ZIGNOR_C]=0;
+		for(i=2;i<ZIGNOR_C;i++)
+		{
+			ZigX[i]=Math.sqrt(-2.0*Math.log(ZIGNOR_V/ZigX[i-1]+f));
+			f=Math.exp(-0.5*ZigX[i]*ZigX[i]);
+		}
+		for(i=0;i<ZIGNOR_C;i++)	ZigR[i]=ZigX[i+1]/ZigX[i];
+	}
+
+	// A fonte de bits aleatórios.
+	private PdsRandomGenerator G=null;
 	// A meia da variável aleatória gaussiana.
 	private double U;
 	// O desvio padrão da variável aleatória gaussiana.
@@ -59,75 +88,177 @@ public class PdsGaussian {
 	private double x;
 
 	/**
-	 * Este é o construtor da classe PdsGaussian
+	 * Este é o construtor da classe PdsGaussian. Usa um {@link PdsXoshiro256}
+	 * próprio, com uma semente automática.
 	 *
 	 *
 	 * @param U E a media da variável aleatória gaussiana.
 	 * @param Sigma E o desvio padrão da variável aleatória gaussiana.
 	 **/
 	public PdsGaussian(double U,double Sigma) {
+		this(U,Sigma,new PdsXoshiro256());
+	}
 
-
-
-		this.X1= new PdsCongruential();	
-		this.X2= new PdsUniform(0.0,1.0);	
-
-		if( (this.X1!=null)&&(this.X2!=null) ){		
-			this.U=U;
-			this.Sigma=Sigma;
-			this.x=0;
-		}
-		
+	/**
+	 * Este é o construtor da classe PdsGaussian com um gerador escolhido.
+	 * O gerador não deve ser usado por outra thread ao mesmo tempo.
+	 *
+	 * @param U E a media da variável aleatória gaussiana.
+	 * @param Sigma E o desvio padrão da variável aleatória gaussiana.
+	 * @param G A fonte de bits aleatórios.
+	 **/
+	public PdsGaussian(double U,double Sigma,PdsRandomGenerator G) {
+		this.G=G;
+		this.U=U;
+		this.Sigma=Sigma;
+		this.x=0;
 	}
 
 	/**
 	 * Este método o inicia a variável aleatória gaussiana.
 	 *
+	 * O valor x0 é a semente do gerador: o mesmo x0 sempre gera a mesma
+	 * sequencia.
 	 *
 	 * @param x0 valor inicial da variável aleatória gaussiana.
 	 **/
 	public void Init(double x0) {
-		long x1;
-		double x2;
-		long N;
-
-		N=PdsRV.PDS_RAND_MAX;
-
-		x2=0.5;
-		if(this.Sigma!=0)	x1=(long)( N-N*Math.exp((-0.5)*((x0-this.U)/this.Sigma)*((x0-this.U)/this.Sigma)) );
-		else				x1=N;
-		
-		if(x1>=N)	x1=N-1;	//As variáveis Congruential vão de [0,PdsRV.PDS_RAND_MAX>
-	
-		if(this.X1!=null)	this.X1.Init(x1);
-		if(this.X2!=null)	this.X2.Init(x2);
-	
+		this.G.Init(Double.doubleToLongBits(x0));
 		this.x=x0;
-
 	}
 	
 
 	/**
-	 * Este método retorna um valor da variável aleatória gaussiana.
+	 * Este método retorna um valor da variável aleatória gaussiana, pelo
+	 * método Ziggurat (versão ZigNor de Doornik, com {@link #ZIGNOR_C} blocos).
 	 *
+	 * Um só valor de 64 bits do gerador dá o bloco (7 bits) e a posição
+	 * dentro dele (53 bits); em ~99% das vezes a amostra está dentro do
+	 * retângulo do bloco e custa uma comparação e uma multiplicação. Só nas
+	 * bordas dos blocos e na cauda {@latex.inline $|x|>R$} são usados exp e log.
 	 *
 	 * @return Retorna um valor da variável aleatória gaussiana.
 	 **/
 	public double GetValue() {
+		this.x=this.Sigma*this.Normal()+this.U;
+		return this.x;	
+	}
 
-		long x1;
-		double x2;
-		long N;
-		double K;
+	/**
+	 * Este método preenche Dst[Off] até Dst[Off+Len-1] com os próximos Len
+	 * valores de {@link #GetValue()}, na mesma ordem.
+	 *
+	 * @param Dst O vetor de destino.
+	 * @param Off O primeiro índice a preencher.
+	 * @param Len O número de valores.
+	 **/
+	public void Fill(double[] Dst,int Off,int Len) {
+		int i,end;
+		double u,s;
 
-		x1=this.X1.GetValue();	//RV Congruential
-		x2=this.X2.GetValue();	//RV Uniform
+		if(Len<=0)	return;
 
-		K=PdsRV._2LN_PDS_RAND_MAX;
-		N=PdsRV.PDS_RAND_MAX;
+		end=Off+Len;
+		u=this.U;
+		s=this.Sigma;
+		for(i=Off;i<end;i++)	Dst[i]=s*this.Normal()+u;
 
-		this.x=this.Sigma*Math.sqrt(K-2.0*Math.log(N-x1))*Math.cos(2.0*Math.PI*x2)+this.U;
+		this.x=Dst[end-1];
+	}
 
-		return this.x;	
+	/**
+	 * Este método preenche os elementos restantes de Dst (de position até
+	 * limit) como {@link #Fill(double[],int,int)}; no fim position=limit.
+	 * @param Dst O buffer de destino.
+	 **/
+	public void Fill(DoubleBuffer Dst) {
+		if(Dst.hasArray())
+		{
+			this.Fill(Dst.array(),Dst.arrayOffset()+Dst.position(),Dst.remaining());
+			Dst.position(Dst.limit());
+		}
+		else
+		{
+			while(Dst.hasRemaining())	Dst.put(this.GetValue());
+		}
+	}
+
+	/**
+	 * Este método preenche Dst[Off] até Dst[Off+Len-1] como
+	 * {@link #Fill(double[],int,int)}, mas em paralelo, em blocos de
+	 * {@link PdsXoshiro256#PARALLEL_BLOCK} valores.
+	 *
+	 * Só é paralelo se o gerador é um {@link PdsXoshiro256}: o bloco k usa uma
+	 * cópia do gerador avançada k saltos de {@latex.inline $2^{128}$} (ver
+	 * {@link PdsXoshiro256#Split()}). Como o Ziggurat às vezes usa mais de um
+	 * número por amostra, um só gerador não poderia ser dividido por posição;
+	 * com os saltos, o resultado depende só da semente, não do número de
+	 * threads. Com outro gerador, é o mesmo que {@link #Fill(double[],int,int)}.
+	 *
+	 * @param Dst O vetor de destino.
+	 * @param Off O primeiro índice a preencher.
+	 * @param Len O número de valores.
+	 **/
+	public void FillParallel(double[] Dst,int Off,int Len) {
+		int k,n;
+		PdsXoshiro256 g;
+		PdsFillTask.Part[] parts;
+
+		if( !(this.G instanceof PdsXoshiro256) )
+		{
+			this.Fill(Dst,Off,Len);
+			return;
+		}
+		if(Len<=0)	return;
+
+		g=(PdsXoshiro256)this.G;
+		n=PdsFillTask.Blocks(Len);
+		parts=new PdsFillTask.Part[n];
+		for(k=0;k<n;k++)	parts[k]=new PdsGaussian(this.U,this.Sigma,g.Split());
+		PdsFillTask.Run(parts,Dst,Off,Len);
+
+		this.x=Dst[Off+Len-1];
+	}
+
+	// Uma amostra de N(0,1).
+	private double Normal() {
+		long bits;
+		int i;
+		double u,x,f0,f1;
+
+		while(true)
+		{
+			bits=this.G.GetLong();
+			i=(int)bits&(ZIGNOR_C-1);
+			u=2.0*((bits>>>11)*0x1.0p-53)-1.0;
+
+			// Dentro do retângulo do bloco i
+			if(Math.abs(u)<ZigR[i])	return u*ZigX[i];
+
+			// Bloco de baixo: amostra da cauda
+			if(i==0)	return this.Tail(u<0);
+
+			// Na cunha entre o retângulo e a curva
+			x=u*ZigX[i];
+			f0=Math.exp(-0.5*(ZigX[i]*ZigX[i]-x*x));
+			f1=Math.exp(-0.5*(ZigX[i+1]*ZigX[i+1]-x*x));
+			if(f1+this.G.GetDouble()*(f0-f1)<1.0)	return x;
+		}
+	}
+
+	// Amostra da cauda |x|>R (método de Marsaglia).
+	private double Tail(boolean Negative) {
+		double x,y;
+
+		do
+		{
+			// 1-GetDouble() está em (0,1]: o logaritmo é finito.
+			x=Math.log(1.0-this.G.GetDouble())/ZIGNOR_R;
+			y=Math.log(1.0-this.G.GetDouble());
+		}
+		while(-2.0*y<x*x);
+
+		if(Negative)	return x-ZIGNOR_R;
+		else			return ZIGNOR_R-x;
 	}
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.pdsrv;
+
+import java.nio.DoubleBuffer;
+
+/** 
+ * Esta interface é uma fonte de bits aleatórios, usada pelas variáveis
+ * aleatórias do pacote (ver {@link PdsUniform} e {@link PdsGaussian}).
+ *
+ * <br><br> As implementações não são seguras para usar em várias threads ao
+ * mesmo tempo: cada thread deve criar o seu gerador, com uma semente própria.
+ * Criar geradores é seguro em qualquer thread.
+ *
+ * <br><br> Para usar esta interface é necessário escrever:
+ *  <pre>  import net.sourceforge.pdsplibj.pdsrv.PdsRandomGenerator; </pre>
+ *
+ * Um exemplo de código seria:
+ * <pre>
+ *  PdsRandomGenerator G=new PdsXoshiro256(1234);
+ *  PdsGaussian X=new PdsGaussian(0,1,G);
+ * </pre>
+ *
+ * @version 0.01
+ * @see <a href="http://pdsplib.sourceforge.net"> PDS Project Libraries in Java </a>
+ * @see PdsXoshiro256
+ * @see PdsSplitMix64
+ */
+public interface PdsRandomGenerator {
+	/**
+	 * Este método reinicia o gerador com uma semente. A mesma semente sempre
+	 * gera a mesma sequencia.
+	 * @param Seed A semente, qualquer valor de 64 bits.
+	 **/
+	public void Init(long Seed);
+
+	/**
+	 * Este método retorna 64 bits aleatórios.
+	 * @return Retorna um valor uniformemente distribuído entre todos os long.
+	 **/
+	public long GetLong();
+
+	/**
+	 * Este método retorna um valor real uniformemente distribuído em [0,1),
+	 * com 53 bits aleatórios (múltiplo de {@latex.inline $2^{-53}$}).
+	 * @return Retorna um valor em [0,1).
+	 **/
+	public double GetDouble();
+
+	/**
+	 * Este método preenche Dst[Off] até Dst[Off+Len-1] com valores de
+	 * {@link #GetDouble()}, na mesma ordem em que seriam retornados.
+	 * @param Dst O vetor de destino.
+	 * @param Off O primeiro índice a preencher.
+	 * @param Len O número de valores.
+	 **/
+	public void Fill(double[] Dst,int Off,int Len);
+
+	/**
+	 * Este método preenche os elementos restantes de Dst (de position até
+	 * limit) com valores de {@link #GetDouble()}; no fim position=limit.
+	 * @param Dst O buffer de destino.
+	 **/
+	public void Fill(DoubleBuffer Dst);
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.pdsrv;
+
+import java.nio.DoubleBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** 
+ * Esta classe implementa o gerador SplitMix64: um contador de 64 bits
+ * somado com uma constante em cada passo e embaralhado por uma função de
+ * mistura.
+ *
+ * <br><br> É muito rápido e aceita qualquer semente, inclusive zero; é usado
+ * principalmente para criar as sementes de outros geradores (ver
+ * {@link PdsXoshiro256}). {@link #NewSeed()} entrega sementes diferentes a
+ * cada chamada, sem travas, em qualquer thread. Como o estado é só um
+ * contador, avançar n valores é somar {@latex.inline $n \\cdot \\gamma$}, e
+ * {@link #FillParallel(double[],int,int)} dá o mesmo resultado que
+ * {@link #Fill(double[],int,int)}.
+ *
+ * <br><br> Para usar esta classe é necessário escrever:
+ *  <pre>  import net.sourceforge.pdsplibj.pdsrv.PdsSplitMix64; </pre>
+ *
+ * @version 0.01
+ * @see <a href="http://pdsplib.sourceforge.net"> PDS Project Libraries in Java </a>
+ * @see <a href="https://prng.di.unimi.it/splitmix64.c"> splitmix64.c </a>
+ */
+public class PdsSplitMix64 implements PdsRandomGenerator, PdsFillTask.Part {
+	/** O incremento do contador: {@latex.inline $2^{64}/\\phi$}, ímpar. */
+	public static final long GOLDEN_GAMMA=0x9E3779B97F4A7C15L;
+
+	// Fonte das sementes automáticas, compartilhada por todas as threads.
+	private static final AtomicLong SeedSource=new AtomicLong(System.nanoTime());
+
+	private long State;
+
+	/**
+	 * Este construtor cria um gerador com uma semente de {@link #NewSeed()}.
+	 **/
+	public PdsSplitMix64() {
+		this.State=NewSeed();
+	}
+
+	/**
+	 * Este construtor cria um gerador com uma semente explícita.
+	 * @param Seed A semente.
+	 **/
+	public PdsSplitMix64(long Seed) {
+		this.State=Seed;
+	}
+
+	public void Init(long Seed) {
+		this.State=Seed;
+	}
+
+	public long GetLong() {
+		this.State=this.State+GOLDEN_GAMMA;
+		return Mix(this.State);
+	}
+
+	public double GetDouble() {
+		return (GetLong()>>>11)*0x1.0p-53;
+	}
+
+	public void Fill(double[] Dst,int Off,int Len) {
+		int i,end;
+		long s;
+
+		s=this.State;
+		end=Off+Len;
+		for(i=Off;i<end;i++)
+		{
+			s=s+GOLDEN_GAMMA;
+			Dst[i]=(Mix(s)>>>11)*0x1.0p-53;
+		}
+		this.State=s;
+	}
+
+	public void Fill(DoubleBuffer Dst) {
+		if(Dst.hasArray())
+		{
+			this.Fill(Dst.array(),Dst.arrayOffset()+Dst.position(),Dst.remaining());
+			Dst.position(Dst.limit());
+		}
+		else
+		{
+			while(Dst.hasRemaining())	Dst.put(this.GetDouble());
+		}
+	}
+
+	/**
+	 * Este método preenche Dst[Off] até Dst[Off+Len-1] como
+	 * {@link #Fill(double[],int,int)}, mas em paralelo, com o mesmo resultado.
+	 *
+	 * O vetor é dividido em blocos de {@link PdsXoshiro256#PARALLEL_BLOCK}
+	 * valores; o bloco k usa uma cópia do gerador com o contador avançado
+	 * {@latex.inline $k \\cdot PARALLEL\\_BLOCK \\cdot \\gamma$}. No fim, o
+	 * gerador fica avançado Len valores, como depois de
+	 * {@link #Fill(double[],int,int)}. Os blocos são divididos entre as
+	 * threads do pool de {@link net.sourceforge.pdsplibj.pdsra.PdsForkJoin}.
+	 *
+	 * @param Dst O vetor de destino.
+	 * @param Off O primeiro índice a preencher.
+	 * @param Len O número de valores.
+	 **/
+	public void FillParallel(double[] Dst,int Off,int Len) {
+		int k,n;
+		long step;
+		PdsFillTask.Part[] parts;
+
+		if(Len<=0)	return;
+
+		step=PdsXoshiro256.PARALLEL_BLOCK*GOLDEN_GAMMA;
+		n=PdsFillTask.Blocks(Len);
+		parts=new PdsFillTask.Part[n];
+		for(k=0;k<n;k++)	parts[k]=new PdsSplitMix64(this.State+k*step);
+		PdsFillTask.Run(parts,Dst,Off,Len);
+
+		this.State=this.State+Len*GOLDEN_GAMMA;
+	}
+
+	/**
+	 * Este método é a função de mistura do SplitMix64: uma bijeção de 64 bits
+	 * em que cada bit de entrada muda, em média, metade dos bits de saída.
+	 * @param z O valor a misturar.
+	 * @return Retorna o valor misturado.
+	 **/
+	public static long Mix(long z) {
+		z=(z^(z>>>30))*0xBF58476D1CE4E5B9L;
+		z=(z^(z>>>27))*0x94D049BB133111EBL;
+		return z^(z>>>31);
+	}
+
+	/**
+	 * Este método retorna uma semente nova, diferente a cada chamada (até
+	 * {@latex.inline $2^{64}$} chamadas). Pode ser chamado por várias threads
+	 * ao mesmo tempo.
+	 * @return Retorna uma semente.
+	 **/
+	public static long NewSeed() {
+		return Mix(SeedSource.addAndGet(GOLDEN_GAMMA));
+	}
+}
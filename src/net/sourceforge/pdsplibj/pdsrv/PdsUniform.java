@@ -18,8 +18,10 @@
 
 package net.sourceforge.pdsplibj.pdsrv;
 
-import net.sourceforge.pdsplibj.pdsrv.PdsCongruential;
-import net.sourceforge.pdsplibj.pdsrv.PdsRV;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import net.sourceforge.pdsplibj.pdsrv.PdsRandomGenerator;
+import net.sourceforge.pdsplibj.pdsrv.PdsXoshiro256;
 
 /** 
  * Esta classe implementa uma variável aleatória uniforme distribuída entre os valores A e B.
@@ -41,6 +43,9 @@ import net.sourceforge.pdsplibj.pdsrv.PdsRV;
  *
  *  //Logo simplesmente pedir os dados
  *  value=X.GetValue();
+ *
+ *  //Ou muitos de uma vez
+ *  X.Fill(v,0,v.length);
  * </pre>
  * <br>
  * @author Fernando Pujaico Rivera <a href="mailto:fernando.pujaico.rivera@gmail.com">fernando.pujaico.rivera@gmail.com</a>
@@ -48,11 +53,9 @@ import net.sourceforge.pdsplibj.pdsrv.PdsRV;
  * @since 2015-05-25
  * @see <a href="http://pdsplib.sourceforge.net"> PDS Project Libraries in Java </a>
 */
-public class PdsUniform {
-	/** Uma sequencia aleatória gerada com o método congruencial misto.
-	 *  sua saída vai entre 0<=x0<PdsRV.PDS_RAND_MAX
-	 */
-	private PdsCongruential X1=null;
+public class PdsUniform implements PdsFillTask.Part {
+	/** A fonte de bits aleatórios. null se A==B. */
+	private PdsRandomGenerator G=null;
 
 	/** A saída real da variável aleatória uniformemente distribuída  
 	 *  vai entre A<=x<B. 
@@ -66,39 +69,43 @@ public class PdsUniform {
 	private double B;
 
 	/**
-	 * Este é o construtor da classe PdsUniform
+	 * Este é o construtor da classe PdsUniform. Usa um {@link PdsXoshiro256}
+	 * próprio, com uma semente automática.
 	 *
 	 *
 	 * @param A Valor inicial esquerdo da variável aleatória..
 	 * @param B Valor final direito da variável aleatória.
 	 **/
 	public PdsUniform(double A,double B) {
-		
+		this(A,B,(A!=B)?new PdsXoshiro256():null);
+	}
 
-		if(A!=B)	this.X1= new PdsCongruential();	
-		else		this.X1= null;	
-		
+	/**
+	 * Este é o construtor da classe PdsUniform com um gerador escolhido.
+	 * O gerador não deve ser usado por outra thread ao mesmo tempo.
+	 *
+	 * @param A Valor inicial esquerdo da variável aleatória..
+	 * @param B Valor final direito da variável aleatória.
+	 * @param G A fonte de bits aleatórios.
+	 **/
+	public PdsUniform(double A,double B,PdsRandomGenerator G) {
+		this.G=G;
 		this.A=A;
 		this.B=B;
 		this.x=0;
-	
 	}
 
 	/**
 	 * Este método o inicia a variável aleatória uniforme.
 	 * 
-	 * Se x0 esta fora do rango [A,B> então ele toma o valor de A
+	 * O valor x0 é a semente do gerador: o mesmo x0 sempre gera a mesma
+	 * sequencia. Se x0 esta fora do rango [A,B> então ele toma o valor de A.
 	 * @param x0 valor inicial da variável aleatória uniforme.
 	 **/
 	public void Init(double x0) {
-		long x1;
-
 		if((x0 < this.A)||(x0 >= this.B))	x0=this.A;
 
-		if(this.B!=this.A)	x1=(long)(((x0 - this.A)/(this.B - this.A))*(PdsRV.PDS_RAND_MAX-64));
-		else				x1=0;
-
-		if(this.X1!=null)	this.X1.Init(x1);
+		if(this.G!=null)	this.G.Init(Double.doubleToLongBits(x0));
 
 		this.x=x0;
 	}
@@ -111,14 +118,97 @@ public class PdsUniform {
 	 * @return Retorna um valor da variável aleatória uniforme.
 	 **/
 	public double GetValue() {
+		double u;
 
-		long x1;
-
-		if(this.X1!=null)	x1=this.X1.GetValue();
-		else				x1=0;
+		if(this.G!=null)	u=this.G.GetDouble();
+		else				u=0;
 
-		this.x=((x1*1.0)/((PdsRV.PDS_RAND_MAX+64)))*(this.B-this.A)+this.A;
+		this.x=u*(this.B-this.A)+this.A;
 
 		return this.x;	
 	}
+
+	/**
+	 * Este método preenche Dst[Off] até Dst[Off+Len-1] com os próximos Len
+	 * valores de {@link #GetValue()}, na mesma ordem.
+	 *
+	 * Os números do gerador são escritos direto no vetor e depois levados
+	 * para [A,B> num laço simples, sem chamadas por elemento.
+	 *
+	 * @param Dst O vetor de destino.
+	 * @param Off O primeiro índice a preencher.
+	 * @param Len O número de valores.
+	 **/
+	public void Fill(double[] Dst,int Off,int Len) {
+		int i,end;
+		double a,d;
+
+		if(Len<=0)	return;
+
+		end=Off+Len;
+		a=this.A;
+		d=this.B-this.A;
+
+		if(this.G!=null)
+		{
+			this.G.Fill(Dst,Off,Len);
+			for(i=Off;i<end;i++)	Dst[i]=Dst[i]*d+a;
+		}
+		else	Arrays.fill(Dst,Off,end,a);
+
+		this.x=Dst[end-1];
+	}
+
+	/**
+	 * Este método preenche os elementos restantes de Dst (de position até
+	 * limit) como {@link #Fill(double[],int,int)}; no fim position=limit.
+	 * @param Dst O buffer de destino.
+	 **/
+	public void Fill(DoubleBuffer Dst) {
+		if(Dst.hasArray())
+		{
+			this.Fill(Dst.array(),Dst.arrayOffset()+Dst.position(),Dst.remaining());
+			Dst.position(Dst.limit());
+		}
+		else
+		{
+			while(Dst.hasRemaining())	Dst.put(this.GetValue());
+		}
+	}
+
+	/**
+	 * Este método preenche Dst[Off] até Dst[Off+Len-1] como
+	 * {@link #Fill(double[],int,int)}, mas em paralelo, em blocos de
+	 * {@link PdsXoshiro256#PARALLEL_BLOCK} valores.
+	 *
+	 * Só é paralelo se o gerador é um {@link PdsXoshiro256}: o bloco k usa uma
+	 * cópia do gerador avançada k saltos de {@latex.inline $2^{128}$} (ver
+	 * {@link PdsXoshiro256#Split()}), então o resultado depende só da
+	 * semente, não do número de threads. Com outro gerador, é o mesmo que
+	 * {@link #Fill(double[],int,int)}.
+	 *
+	 * @param Dst O vetor de destino.
+	 * @param Off O primeiro índice a preencher.
+	 * @param Len O número de valores.
+	 **/
+	public void FillParallel(double[] Dst,int Off,int Len) {
+		int k,n;
+		PdsXoshiro256 g;
+		PdsFillTask.Part[] parts;
+
+		if( !(this.G instanceof PdsXoshiro256) )
+		{
+			this.Fill(Dst,Off,Len);
+			return;
+		}
+		if(Len<=0)	return;
+
+		g=(PdsXoshiro256)this.G;
+		n=PdsFillTask.Blocks(Len);
+		parts=new PdsFillTask.Part[n];
+		for(k=0;k<n;k++)	parts[k]=new PdsUniform(this.A,this.B,g.Split());
+		PdsFillTask.Run(parts,Dst,Off,Len);
+
+		this.x=Dst[Off+Len-1];
+	}
 }
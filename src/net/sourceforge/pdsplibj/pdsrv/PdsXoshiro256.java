@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2026. The PDS Project Libraries in Java contributors.
+ * This library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package net.sourceforge.pdsplibj.pdsrv;
+
+import java.nio.DoubleBuffer;
+
+/** 
+ * Esta classe implementa o gerador xoshiro256** de Blackman e Vigna: 256
+ * bits de estado, período {@latex.inline $2^{256}-1$}, só somas, XOR,
+ * deslocamentos e rotações, e saída com boa qualidade em todos os bits.
+ *
+ * <br><br> A semente de 64 bits é expandida para os 256 bits de estado com
+ * {@link PdsSplitMix64}, então sementes parecidas geram sequencias
+ * independentes. Cada thread deve ter o seu gerador; o construtor sem
+ * semente é seguro em qualquer thread (ver {@link PdsSplitMix64#NewSeed()}).
+ * {@link #Jump()} avança {@latex.inline $2^{128}$} valores de uma vez: cópias
+ * do mesmo gerador separadas por saltos dão sequencias que nunca se
+ * sobrepõem, o que permite preencher um vetor grande em paralelo com o mesmo
+ * resultado que em qualquer número de threads.
+ *
+ * <br><br> Para usar esta classe é necessário escrever:
+ *  <pre>  import net.sourceforge.pdsplibj.pdsrv.PdsXoshiro256; </pre>
+ *
+ * Um exemplo de código seria:
+ * <pre>
+ *  PdsXoshiro256 G=new PdsXoshiro256(1234);
+ *
+ *  bits=G.GetLong();
+ *  u=G.GetDouble();
+ * </pre>
+ *
+ * @version 0.01
+ * @see <a href="http://pdsplib.sourceforge.net"> PDS Project Libraries in Java </a>
+ * @see <a href="https://prng.di.unimi.it/xoshiro256starstar.c"> xoshiro256starstar.c </a>
+ */
+public class PdsXoshiro256 implements PdsRandomGenerator, PdsFillTask.Part {
+	/**
+	 * Tamanho dos blocos de {@link #FillParallel(double[],int,int)}: cada
+	 * bloco usa uma cópia do gerador separada da anterior por um
+	 * {@link #Jump()}.
+	 */
+	public static final int PARALLEL_BLOCK=1<<16;
+
+	// Polinômio do salto de 2^128 valores.
+	private static final long[] JUMP={	0x180EC6D33CFD0ABAL,0xD5A61266F0C9392CL,
+										0xA9582618E03FC9AAL,0x39ABDC4529B1661CL};
+
+	private long S0;
+	private long S1;
+	private long S2;
+	private long S3;
+
+	/**
+	 * Este construtor cria um gerador com uma semente de
+	 * {@link PdsSplitMix64#NewSeed()}.
+	 **/
+	public PdsXoshiro256() {
+		this.Init(PdsSplitMix64.NewSeed());
+	}
+
+	/**
+	 * Este construtor cria um gerador com uma semente explícita.
+	 * @param Seed A semente.
+	 **/
+	public PdsXoshiro256(long Seed) {
+		this.Init(Seed);
+	}
+
+	/**
+	 * Este construtor cria uma cópia do gerador Src, com o mesmo estado.
+	 * @param Src O gerador a copiar.
+	 **/
+	public PdsXoshiro256(PdsXoshiro256 Src) {
+		this.S0=Src.S0;
+		this.S1=Src.S1;
+		this.S2=Src.S2;
+		this.S3=Src.S3;
+	}
+
+	/**
+	 * Este método reinicia o estado com quatro saídas de um
+	 * {@link PdsSplitMix64} iniciado com Seed (o estado nunca fica todo zero).
+	 * @param Seed A semente.
+	 **/
+	public void Init(long Seed) {
+		long z=Seed;
+
+		z=z+PdsSplitMix64.GOLDEN_GAMMA;	this.S0=PdsSplitMix64.Mix(z);
+		z=z+PdsSplitMix64.GOLDEN_GAMMA;	this.S1=PdsSplitMix64.Mix(z);
+		z=z+PdsSplitMix64.GOLDEN_GAMMA;	this.S2=PdsSplitMix64.Mix(z);
+		z=z+PdsSplitMix64.GOLDEN_GAMMA;	this.S3=PdsSplitMix64.Mix(z);
+	}
+
+	public long GetLong() {
+		long result,t;
+
+		result=Long.rotateLeft(this.S1*5,7)*9;
+		t=this.S1<<17;
+
+		this.S2=this.S2^this.S0;
+		this.S3=this.S3^this.S1;
+		this.S1=this.S1^this.S2;
+		this.S0=this.S0^this.S3;
+
+		this.S2=this.S2^t;
+		this.S3=Long.rotateLeft(this.S3,45);
+
+		return result;
+	}
+
+	public double GetDouble() {
+		return (GetLong()>>>11)*0x1.0p-53;
+	}
+
+	public void Fill(double[] Dst,int Off,int Len) {
+		int i,end;
+		long s0,s1,s2,s3,result,t;
+
+		s0=this.S0;
+		s1=this.S1;
+		s2=this.S2;
+		s3=this.S3;
+
+		end=Off+Len;
+		for(i=Off;i<end;i++)
+		{
+			result=Long.rotateLeft(s1*5,7)*9;
+			t=s1<<17;
+			s2=s2^s0;
+			s3=s3^s1;
+			s1=s1^s2;
+			s0=s0^s3;
+			s2=s2^t;
+			s3=Long.rotateLeft(s3,45);
+
+			Dst[i]=(result>>>11)*0x1.0p-53;
+		}
+
+		this.S0=s0;
+		this.S1=s1;
+		this.S2=s2;
+		this.S3=s3;
+	}
+
+	public void Fill(DoubleBuffer Dst) {
+		if(Dst.hasArray())
+		{
+			this.Fill(Dst.array(),Dst.arrayOffset()+Dst.position(),Dst.remaining());
+			Dst.position(Dst.limit());
+		}
+		else
+		{
+			while(Dst.hasRemaining())	Dst.put(this.GetDouble());
+		}
+	}
+
+	/**
+	 * Este método preenche Dst[Off] até Dst[Off+Len-1] como
+	 * {@link #Fill(double[],int,int)}, mas em paralelo.
+	 *
+	 * O vetor é dividido em blocos de {@link #PARALLEL_BLOCK} valores; o bloco
+	 * k usa uma cópia do gerador avançada k vezes por {@link #Jump()}. O
+	 * resultado depende só do estado do gerador, não do número de threads,
+	 * mas não é o mesmo de {@link #Fill(double[],int,int)}. No fim, o gerador
+	 * fica avançado um salto por bloco. Os blocos são divididos entre as
+	 * threads do pool de {@link net.sourceforge.pdsplibj.pdsra.PdsForkJoin}.
+	 *
+	 * @param Dst O vetor de destino.
+	 * @param Off O primeiro índice a preencher.
+	 * @param Len O número de valores.
+	 **/
+	public void FillParallel(double[] Dst,int Off,int Len) {
+		int k,n;
+		PdsFillTask.Part[] parts;
+
+		n=PdsFillTask.Blocks(Len);
+		parts=new PdsFillTask.Part[n];
+		for(k=0;k<n;k++)	parts[k]=this.Split();
+		PdsFillTask.Run(parts,Dst,Off,Len);
+	}
+
+	/**
+	 * Este método retorna uma cópia do gerador e avança este
+	 * {@latex.inline $2^{128}$} valores: as sequencias das duas não se
+	 * sobrepõem. A cópia pode ser usada em outra thread.
+	 *
+	 * @return Retorna a cópia.
+	 **/
+	public PdsXoshiro256 Split() {
+		PdsXoshiro256 g=new PdsXoshiro256(this);
+		this.Jump();
+		return g;
+	}
+
+	/**
+	 * Este método avança o gerador {@latex.inline $2^{128}$} valores, o
+	 * mesmo que chamar {@link #GetLong()} {@latex.inline $2^{128}$} vezes.
+	 **/
+	public void Jump() {
+		int i,b;
+		long s0,s1,s2,s3;
+
+		s0=0;	s1=0;	s2=0;	s3=0;
+		for(i=0;i<JUMP.length;i++)
+		{
+			for(b=0;b<64;b++)
+			{
+				if( (JUMP[i]&(1L<<b))!=0 )
+				{
+					s0=s0^this.S0;
+					s1=s1^this.S1;
+					s2=s2^this.S2;
+					s3=s3^this.S3;
+				}
+				this.GetLong();
+			}
+		}
+		this.S0=s0;
+		this.S1=s1;
+		this.S2=s2;
+		this.S3=s3;
+	}
+}